@@ -0,0 +1,375 @@
+package com.nexoscript.dsm.api;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import com.github.dockerjava.api.exception.NotFoundException;
+import com.nexoscript.dsm.common.server.bulk.BulkOperationResult;
+import com.nexoscript.dsm.common.server.container.ServerContainer;
+import com.nexoscript.dsm.common.server.health.HealthStatus;
+import com.nexoscript.dsm.common.server.manager.ServerManager;
+import com.nexoscript.dsm.common.server.metrics.StatsSnapshot;
+import com.nexoscript.dsm.common.server.provisioning.ProvisioningListener;
+import com.nexoscript.dsm.common.server.registry.ContainerEventListener;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+public class ApiServer {
+    private static final Duration HEARTBEAT_INTERVAL = Duration.ofSeconds(15);
+
+    private final ServerManager serverManager;
+    private final HttpServer httpServer;
+    private final ThreadPoolExecutor executor;
+    private final Semaphore streamPermits;
+    private final Set<EventStream> streams;
+    private final AtomicLong requests;
+    private final AtomicLong failures;
+    private ScheduledFuture<?> heartbeat;
+
+    public ApiServer(ServerManager serverManager, InetSocketAddress address) throws IOException {
+        this(serverManager, address, 8, 64);
+    }
+
+    public ApiServer(ServerManager serverManager, InetSocketAddress address, int threads, int maxStreams)
+            throws IOException {
+        System.setProperty("sun.net.httpserver.nodelay", System.getProperty("sun.net.httpserver.nodelay", "true"));
+        this.serverManager = serverManager;
+        this.streamPermits = new Semaphore(maxStreams);
+        this.streams = ConcurrentHashMap.newKeySet();
+        this.requests = new AtomicLong();
+        this.failures = new AtomicLong();
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads * 64), runnable -> {
+                    Thread thread = new Thread(runnable, "dsm-api-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+        this.httpServer = HttpServer.create(address, 256);
+        this.httpServer.setExecutor(this.executor);
+        this.httpServer.createContext("/", this::handle);
+    }
+
+    public void start() {
+        this.httpServer.start();
+        this.heartbeat = this.serverManager.getScheduler().scheduleAtFixedRate("api-heartbeat",
+                () -> this.streams.forEach(EventStream::ping), HEARTBEAT_INTERVAL, HEARTBEAT_INTERVAL);
+    }
+
+    public void stop() {
+        if (this.heartbeat != null) {
+            this.heartbeat.cancel(false);
+        }
+        for (EventStream stream : this.streams) {
+            stream.close();
+        }
+        this.httpServer.stop(1);
+        this.executor.shutdown();
+    }
+
+    public InetSocketAddress getAddress() {
+        return this.httpServer.getAddress();
+    }
+
+    public int getActiveStreams() {
+        return this.streams.size();
+    }
+
+    public int getQueuedRequests() {
+        return this.executor.getQueue().size();
+    }
+
+    public long getRequests() {
+        return this.requests.get();
+    }
+
+    public long getFailures() {
+        return this.failures.get();
+    }
+
+    private void handle(HttpExchange exchange) {
+        this.requests.incrementAndGet();
+        try {
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            this.route(exchange, exchange.getRequestMethod(), this.segments(exchange.getRequestURI().getPath()),
+                    body);
+        } catch (Throwable e) {
+            this.fail(exchange, e);
+        }
+    }
+
+    private void route(HttpExchange exchange, String method, List<String> path, String body) throws IOException {
+        if (path.size() == 1 && path.get(0).equals("events")) {
+            this.expect(method, "GET");
+            this.events(exchange);
+            return;
+        }
+        if (path.isEmpty() || !path.get(0).equals("servers")) {
+            throw new NotFoundException("No route for " + exchange.getRequestURI().getPath());
+        }
+        if (path.size() == 1) {
+            if (method.equals("POST")) {
+                this.create(exchange, body);
+                return;
+            }
+            this.expect(method, "GET");
+            JSONArray servers = new JSONArray();
+            for (ServerContainer container : this.serverManager.getServerContainers()) {
+                servers.put(this.server(container));
+            }
+            this.respond(exchange, 200, servers.toString());
+            return;
+        }
+        String containerName = path.get(1);
+        if (path.size() == 2) {
+            if (method.equals("DELETE")) {
+                this.bulk(exchange, containerName, "remove");
+                return;
+            }
+            this.expect(method, "GET");
+            ServerContainer container = this.require(containerName);
+            JSONObject server = this.server(container);
+            HealthStatus health = this.serverManager.getHealthStatus(containerName);
+            server.put("health", new JSONObject()
+                    .put("reachable", health.reachable())
+                    .put("consecutiveFailures", health.consecutiveFailures())
+                    .put("latency", health.latency().toMillis())
+                    .put("playersOnline", health.playersOnline())
+                    .put("playersMax", health.playersMax()));
+            StatsSnapshot stats = this.serverManager.getContainerStats(containerName);
+            server.put("stats", stats == null ? JSONObject.NULL : new JSONObject()
+                    .put("cpuPercent", stats.cpuPercent())
+                    .put("averageCpuPercent", stats.averageCpuPercent())
+                    .put("memoryUsage", stats.memoryUsage())
+                    .put("memoryLimit", stats.memoryLimit())
+                    .put("networkRxRate", stats.networkRxRate())
+                    .put("networkTxRate", stats.networkTxRate()));
+            this.respond(exchange, 200, server.toString());
+            return;
+        }
+        if (path.size() == 3 && path.get(2).equals("logs")) {
+            this.expect(method, "GET");
+            this.logs(exchange, containerName, this.query(exchange));
+            return;
+        }
+        if (path.size() == 3) {
+            this.expect(method, "POST");
+            this.bulk(exchange, containerName, path.get(2));
+            return;
+        }
+        throw new NotFoundException("No route for " + exchange.getRequestURI().getPath());
+    }
+
+    private void create(HttpExchange exchange, String body) {
+        JSONObject request = new JSONObject(body.isBlank() ? "{}" : body);
+        String platform = request.getString("platform");
+        String version = request.getString("version");
+        int memory = request.getInt("memory");
+        JSONArray environment = request.optJSONArray("environment");
+        String[] environmentVariables = new String[environment == null ? 0 : environment.length()];
+        for (int i = 0; i < environmentVariables.length; i++) {
+            environmentVariables[i] = environment.getString(i);
+        }
+        String uniqueId = request.optString("uniqueId", null);
+        CompletableFuture<ServerContainer> future = uniqueId == null
+                ? this.serverManager.createServerContainerAsync(platform, version, memory, environmentVariables,
+                request.optString("template", null), ProvisioningListener.NONE)
+                : this.serverManager.recreateServerContainerAsync(platform, version, uniqueId, memory,
+                environmentVariables, ProvisioningListener.NONE);
+        future.whenComplete((container, error) -> {
+            if (error != null) {
+                this.fail(exchange, error);
+                return;
+            }
+            try {
+                this.respond(exchange, 201, this.server(container).toString());
+            } catch (IOException e) {
+                exchange.close();
+            }
+        });
+    }
+
+    private void bulk(HttpExchange exchange, String containerName, String operation) throws IOException {
+        if (!containerName.equals("*")) {
+            this.require(containerName);
+        }
+        BulkOperationResult result = switch (operation) {
+            case "start" -> this.serverManager.startServerContainer(containerName);
+            case "stop" -> this.serverManager.stopServerContainer(containerName);
+            case "restart" -> this.serverManager.restartServerContainer(containerName);
+            case "remove" -> this.serverManager.removeServerContainer(containerName);
+            default -> throw new NotFoundException("Unknown operation " + operation);
+        };
+        JSONArray outcomes = new JSONArray();
+        for (BulkOperationResult.Outcome outcome : result.getOutcomes()) {
+            outcomes.put(new JSONObject()
+                    .put("container", outcome.containerName())
+                    .put("success", outcome.success())
+                    .put("error", outcome.error() == null ? JSONObject.NULL : outcome.error())
+                    .put("latency", outcome.latency().toMillis()));
+        }
+        JSONObject response = new JSONObject()
+                .put("operation", result.getOperation())
+                .put("successful", result.isSuccessful())
+                .put("duration", result.getDuration().toMillis())
+                .put("outcomes", outcomes);
+        this.respond(exchange, result.isSuccessful() || containerName.equals("*") ? 200 : 500, response.toString());
+    }
+
+    private void logs(HttpExchange exchange, String containerName, Map<String, String> query) throws IOException {
+        int lines = Integer.parseInt(query.getOrDefault("lines", "100"));
+        List<String> tail = this.serverManager.tailLogs(containerName, lines);
+        if (!Boolean.parseBoolean(query.get("follow"))) {
+            this.respond(exchange, 200, new JSONObject().put("lines", tail).toString());
+            return;
+        }
+        EventStream stream = this.openStream(exchange);
+        if (stream == null) {
+            return;
+        }
+        for (String line : tail) {
+            stream.send("log", line);
+        }
+        stream.attach(this.serverManager.followLogs(containerName, line -> stream.send("log", line)));
+    }
+
+    private void events(HttpExchange exchange) throws IOException {
+        EventStream stream = this.openStream(exchange);
+        if (stream == null) {
+            return;
+        }
+        ContainerEventListener listener = (action, containerName, containerId) -> stream.send(action,
+                new JSONObject().put("container", containerName).put("id", containerId).toString());
+        this.serverManager.addContainerEventListener(listener);
+        stream.attach(() -> this.serverManager.removeContainerEventListener(listener));
+    }
+
+    private EventStream openStream(HttpExchange exchange) throws IOException {
+        if (!this.streamPermits.tryAcquire()) {
+            this.respond(exchange, 503, new JSONObject().put("error", "Too many open streams").toString());
+            return null;
+        }
+        EventStream[] holder = new EventStream[1];
+        try {
+            holder[0] = new EventStream(exchange, () -> {
+                this.streams.remove(holder[0]);
+                this.streamPermits.release();
+            });
+        } catch (IOException e) {
+            this.streamPermits.release();
+            throw e;
+        }
+        this.streams.add(holder[0]);
+        return holder[0];
+    }
+
+    private ServerContainer require(String containerName) {
+        ServerContainer container = this.serverManager.getServerContainer(containerName);
+        if (container == null) {
+            throw new NotFoundException("Container " + containerName + " not found");
+        }
+        return container;
+    }
+
+    private JSONObject server(ServerContainer container) {
+        return new JSONObject()
+                .put("name", container.getContainerName())
+                .put("id", container.getContainerId() == null ? JSONObject.NULL : container.getContainerId())
+                .put("node", container.getNode() == null ? JSONObject.NULL : container.getNode())
+                .put("port", container.getPort())
+                .put("platform", container.getPlatform() == null ? JSONObject.NULL : container.getPlatform())
+                .put("version", container.getVersion() == null ? JSONObject.NULL : container.getVersion())
+                .put("memory", container.getMemory())
+                .put("configuration", container.getConfiguration() == null ? JSONObject.NULL
+                        : container.getConfiguration())
+                .put("state", this.serverManager.getServerStateByName(container.getContainerName()).name());
+    }
+
+    private void expect(String method, String expected) {
+        if (!method.equals(expected)) {
+            throw new UnsupportedOperationException("Method " + method + " not allowed");
+        }
+    }
+
+    private void fail(HttpExchange exchange, Throwable error) {
+        if (error instanceof CompletionException && error.getCause() != null) {
+            error = error.getCause();
+        }
+        int status;
+        if (error instanceof NotFoundException) {
+            status = 404;
+        } else if (error instanceof UnsupportedOperationException) {
+            status = 405;
+        } else if (error instanceof JSONException || error instanceof IllegalArgumentException) {
+            status = 400;
+        } else if (error instanceof IllegalStateException) {
+            status = 409;
+        } else {
+            status = 500;
+            System.err.println("Error while handling " + exchange.getRequestMethod() + " "
+                    + exchange.getRequestURI() + ": " + error.getMessage());
+        }
+        this.failures.incrementAndGet();
+        try {
+            this.respond(exchange, status, new JSONObject().put("error", String.valueOf(error.getMessage()))
+                    .toString());
+        } catch (IOException e) {
+            exchange.close();
+        }
+    }
+
+    private void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        try {
+            exchange.sendResponseHeaders(status, bytes.length);
+            exchange.getResponseBody().write(bytes);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private List<String> segments(String path) {
+        return Arrays.stream(path.split("/"))
+                .filter(segment -> !segment.isEmpty())
+                .map(segment -> URLDecoder.decode(segment, StandardCharsets.UTF_8))
+                .toList();
+    }
+
+    private Map<String, String> query(HttpExchange exchange) {
+        Map<String, String> query = new HashMap<>();
+        String raw = exchange.getRequestURI().getRawQuery();
+        if (raw == null) {
+            return query;
+        }
+        for (String parameter : raw.split("&")) {
+            int separator = parameter.indexOf('=');
+            String key = separator < 0 ? parameter : parameter.substring(0, separator);
+            String value = separator < 0 ? "true" : parameter.substring(separator + 1);
+            query.put(URLDecoder.decode(key, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return query;
+    }
+}
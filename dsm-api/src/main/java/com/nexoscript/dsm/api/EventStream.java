@@ -0,0 +1,88 @@
+package com.nexoscript.dsm.api;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import com.sun.net.httpserver.HttpExchange;
+
+class EventStream implements Closeable {
+    private final HttpExchange exchange;
+    private final OutputStream output;
+    private final List<Closeable> resources;
+    private final Runnable onClose;
+    private volatile boolean closed;
+
+    EventStream(HttpExchange exchange, Runnable onClose) throws IOException {
+        this.exchange = exchange;
+        this.onClose = onClose;
+        this.resources = new CopyOnWriteArrayList<>();
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream; charset=utf-8");
+        exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+        exchange.sendResponseHeaders(200, 0);
+        this.output = exchange.getResponseBody();
+    }
+
+    void attach(Closeable resource) {
+        this.resources.add(resource);
+        if (this.closed) {
+            this.close();
+        }
+    }
+
+    boolean send(String event, String data) {
+        StringBuilder message = new StringBuilder("event: ").append(event).append('\n');
+        for (String line : data.split("\n", -1)) {
+            message.append("data: ").append(line).append('\n');
+        }
+        return this.write(message.append('\n').toString());
+    }
+
+    boolean ping() {
+        return this.write(": ping\n\n");
+    }
+
+    private synchronized boolean write(String message) {
+        if (this.closed) {
+            return false;
+        }
+        try {
+            this.output.write(message.getBytes(StandardCharsets.UTF_8));
+            this.output.flush();
+            return true;
+        } catch (IOException e) {
+            this.close();
+            return false;
+        }
+    }
+
+    boolean isClosed() {
+        return this.closed;
+    }
+
+    @Override
+    public void close() {
+        boolean first;
+        synchronized (this) {
+            first = !this.closed;
+            this.closed = true;
+        }
+        for (Closeable resource : this.resources) {
+            if (!this.resources.remove(resource)) {
+                continue;
+            }
+            try {
+                resource.close();
+            } catch (IOException e) {
+                System.err.println("Error while closing event stream resource: " + e.getMessage());
+            }
+        }
+        if (first) {
+            this.exchange.close();
+            this.onClose.run();
+        }
+    }
+}
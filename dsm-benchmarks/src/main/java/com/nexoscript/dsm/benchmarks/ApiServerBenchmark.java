@@ -0,0 +1,149 @@
+package com.nexoscript.dsm.benchmarks;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.dockerjava.api.model.Container;
+import com.nexoscript.dsm.api.ApiServer;
+import com.nexoscript.dsm.common.server.manager.ServerManager;
+import com.nexoscript.dsm.common.testing.FakeDockerClient;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class ApiServerBenchmark {
+    private static final String PREFIX = "bench-server";
+    private static final int START_PORT = 10000;
+
+    @Param({ "100", "1000" })
+    private int containerCount;
+
+    @Param({ "8" })
+    private int apiThreads;
+
+    private ServerManager serverManager;
+    private ApiServer apiServer;
+    private List<Container> containers;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        this.containers = FakeDockerClient.containers(PREFIX, this.containerCount, START_PORT);
+        this.serverManager = new ServerManager(PREFIX, START_PORT,
+                Files.createTempDirectory("dsm-bench").toString(), Duration.ofDays(1));
+        this.serverManager.initialize(FakeDockerClient.create(this.containers), null);
+        this.apiServer = new ApiServer(this.serverManager, new InetSocketAddress("127.0.0.1", 0), this.apiThreads,
+                16);
+        this.apiServer.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.apiServer.stop();
+        this.serverManager.close();
+    }
+
+    @Benchmark
+    public int getServer(Connection connection) throws IOException {
+        return connection.send("GET", "/servers/" + this.randomName());
+    }
+
+    @Benchmark
+    public int listServers(Connection connection) throws IOException {
+        return connection.send("GET", "/servers");
+    }
+
+    @Benchmark
+    public int restartServer(Connection connection) throws IOException {
+        return connection.send("POST", "/servers/" + this.randomName() + "/restart");
+    }
+
+    private String randomName() {
+        return this.containers.get(ThreadLocalRandom.current().nextInt(this.containers.size())).getNames()[0]
+                .substring(1);
+    }
+
+    @State(Scope.Thread)
+    public static class Connection {
+        private Socket socket;
+        private OutputStream output;
+        private DataInputStream input;
+
+        @Setup(Level.Trial)
+        public void open(ApiServerBenchmark benchmark) throws IOException {
+            this.socket = new Socket(benchmark.apiServer.getAddress().getAddress(),
+                    benchmark.apiServer.getAddress().getPort());
+            this.socket.setTcpNoDelay(true);
+            this.output = new BufferedOutputStream(this.socket.getOutputStream());
+            this.input = new DataInputStream(new BufferedInputStream(this.socket.getInputStream()));
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws IOException {
+            this.socket.close();
+        }
+
+        int send(String method, String path) throws IOException {
+            this.output.write((method + " " + path + " HTTP/1.1\r\nHost: localhost\r\nContent-Length: 0\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII));
+            this.output.flush();
+            String status = this.readLine();
+            if (!status.startsWith("HTTP/1.1 200")) {
+                throw new IllegalStateException("Unexpected status " + status);
+            }
+            int length = -1;
+            for (String header = this.readLine(); !header.isEmpty(); header = this.readLine()) {
+                if (header.regionMatches(true, 0, "Content-Length:", 0, 15)) {
+                    length = Integer.parseInt(header.substring(15).trim());
+                }
+            }
+            if (length < 0) {
+                throw new IllegalStateException("Response without Content-Length breaks keep-alive");
+            }
+            this.input.readFully(new byte[length]);
+            return length;
+        }
+
+        private String readLine() throws IOException {
+            StringBuilder line = new StringBuilder();
+            for (int c = this.input.read(); c != '\n'; c = this.input.read()) {
+                if (c < 0) {
+                    throw new IOException("Connection closed by server");
+                }
+                if (c != '\r') {
+                    line.append((char) c);
+                }
+            }
+            return line.toString();
+        }
+    }
+}
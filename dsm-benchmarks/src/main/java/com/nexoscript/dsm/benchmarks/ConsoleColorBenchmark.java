@@ -0,0 +1,60 @@
+package com.nexoscript.dsm.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.nexoscript.dsm.console.ColorTemplate;
+import com.nexoscript.dsm.console.ConsoleColor;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConsoleColorBenchmark {
+    private static final String PROMPT = "\r[33afff-33ffff]dockermanager &7» &f";
+    private static final String LIST_LINE = "\r[33afff-33ffff]dockermanager &7» &f&ebench-server-00000000-0000-0000-0000-000000000042 - HEALTHY &7(3/20 players, 4ms)";
+    private static final String MESSAGE = "&ebench-server-00000000-0000-0000-0000-000000000042 - HEALTHY &7(3/20 players, 4ms)";
+    private static final String PLAIN_LINE = "[12:00:00 INFO]: Done (3.512s)! For help, type \"help\"";
+
+    @Benchmark
+    public String applyPrompt() {
+        return ConsoleColor.apply(PROMPT);
+    }
+
+    @Benchmark
+    public String applyListLine() {
+        return ConsoleColor.apply(LIST_LINE);
+    }
+
+    @Benchmark
+    public String applyPlainLine() {
+        return ConsoleColor.apply(PLAIN_LINE);
+    }
+
+    @Benchmark
+    public String renderPromptTemplate() {
+        return ConsoleColor.compile(PROMPT).render();
+    }
+
+    @Benchmark
+    public String renderMessageWithTemplate() {
+        ColorTemplate prompt = ConsoleColor.compile(PROMPT);
+        return prompt.render(MESSAGE);
+    }
+
+    @Benchmark
+    public String gradient() {
+        return ConsoleColor.gradient("33afff", "33ffff", "dockermanager");
+    }
+}
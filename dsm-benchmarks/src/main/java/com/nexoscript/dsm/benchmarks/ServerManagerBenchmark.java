@@ -0,0 +1,99 @@
+package com.nexoscript.dsm.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.dockerjava.api.model.Container;
+import com.nexoscript.dsm.common.server.ServerState;
+import com.nexoscript.dsm.common.server.manager.ServerManager;
+import com.nexoscript.dsm.common.testing.FakeDockerClient;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ServerManagerBenchmark {
+    private static final String PREFIX = "bench-server";
+    private static final int START_PORT = 10000;
+
+    @Param({ "100", "1000", "5000" })
+    private int containerCount;
+
+    private ServerManager serverManager;
+    private List<Container> containers;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        this.containers = FakeDockerClient.containers(PREFIX, this.containerCount, START_PORT);
+        this.serverManager = new ServerManager(PREFIX, START_PORT,
+                Files.createTempDirectory("dsm-bench").toString(), Duration.ofDays(1));
+        this.serverManager.initialize(FakeDockerClient.create(this.containers), null);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.serverManager.close();
+    }
+
+    @Benchmark
+    public void mapping() {
+        this.serverManager.mapping();
+    }
+
+    @Benchmark
+    public int getFreePort() {
+        int port = this.serverManager.getFreePort();
+        this.serverManager.getPortAllocator().release(port);
+        return port;
+    }
+
+    @Benchmark
+    public Container getContainerById() {
+        return this.serverManager.getContainerById(this.randomContainer().getId());
+    }
+
+    @Benchmark
+    public Container getContainerByName() {
+        return this.serverManager.getContainerByName(this.randomContainer().getNames()[0]);
+    }
+
+    @Benchmark
+    public ServerState getServerStateByName() {
+        return this.serverManager.getServerStateByName(this.randomContainer().getNames()[0]);
+    }
+
+    @Benchmark
+    public int listContainersWithState() {
+        int running = 0;
+        for (Container container : this.serverManager.getContainers()) {
+            if (this.serverManager.getServerStateById(container.getId()).isRunning()) {
+                running++;
+            }
+        }
+        return running;
+    }
+
+    private Container randomContainer() {
+        return this.containers.get(ThreadLocalRandom.current().nextInt(this.containers.size()));
+    }
+}
@@ -1,6 +1,15 @@
 package com.nexoscript.dsm.common.server;
 
 public enum ServerState {
-    OFFLINE,
-    ONLINE;
+    CREATING,
+    STARTING,
+    HEALTHY,
+    DEGRADED,
+    STOPPING,
+    STOPPED,
+    CRASHED;
+
+    public boolean isRunning() {
+        return this == STARTING || this == HEALTHY || this == DEGRADED;
+    }
 }
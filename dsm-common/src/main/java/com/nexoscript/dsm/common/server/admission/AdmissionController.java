@@ -0,0 +1,246 @@
+package com.nexoscript.dsm.common.server.admission;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import com.nexoscript.dsm.common.server.registry.ContainerEventListener;
+
+public class AdmissionController implements ContainerEventListener {
+    private static final int MINIMUM_MEMORY_OVERHEAD = 256;
+    private static final int MEMORY_OVERHEAD_PERCENT = 25;
+    private static final Duration DEFAULT_ADMISSION_TIMEOUT = Duration.ofMinutes(5);
+
+    private final Map<String, Reservation> reservations;
+    private final ArrayDeque<Pending> queue;
+    private long memoryLimit;
+    private double cpuLimit;
+    private double cpusPerServer;
+    private double cpuCap;
+    private Duration admissionTimeout;
+    private long memoryCommitted;
+    private double cpuCommitted;
+    private long admitted;
+    private long delayed;
+    private long rejected;
+    private long totalWaitNanos;
+
+    public AdmissionController() {
+        this(defaultMemoryLimit(), Runtime.getRuntime().availableProcessors() * 2.0, 0.0);
+    }
+
+    public AdmissionController(long memoryLimit, double cpuLimit, double cpusPerServer) {
+        this.reservations = new HashMap<>();
+        this.queue = new ArrayDeque<>();
+        this.memoryLimit = memoryLimit;
+        this.cpuLimit = cpuLimit;
+        this.cpusPerServer = cpusPerServer;
+        this.admissionTimeout = DEFAULT_ADMISSION_TIMEOUT;
+    }
+
+    public CompletableFuture<Void> admit(String containerName, int memory) {
+        List<CompletableFuture<Void>> ready;
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        synchronized (this) {
+            this.releaseReservation(containerName);
+            long requiredMemory = this.containerMemory(memory);
+            if (requiredMemory > this.memoryLimit || this.cpusPerServer > this.cpuLimit) {
+                this.rejected++;
+                future.completeExceptionally(new IllegalStateException("Server " + containerName + " needs "
+                        + requiredMemory + "MB and " + this.cpusPerServer + " cpus, host capacity is "
+                        + this.memoryLimit + "MB and " + this.cpuLimit + " cpus"));
+                return future;
+            }
+            Pending pending = new Pending(containerName, requiredMemory, this.cpusPerServer, System.nanoTime(),
+                    future);
+            this.queue.add(pending);
+            ready = this.drain();
+            if (!ready.contains(future)) {
+                CompletableFuture.delayedExecutor(this.admissionTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                        .execute(() -> this.expire(pending));
+                this.delayed++;
+                System.out.println("Queued creation of " + containerName + " (" + requiredMemory + "MB), "
+                        + (this.memoryLimit - this.memoryCommitted) + "MB and "
+                        + String.format("%.1f", this.cpuLimit - this.cpuCommitted) + " cpus free, "
+                        + this.queue.size() + " waiting");
+            }
+        }
+        ready.forEach(admitted -> admitted.complete(null));
+        return future;
+    }
+
+    private void expire(Pending pending) {
+        List<CompletableFuture<Void>> ready;
+        long waited;
+        synchronized (this) {
+            if (!this.queue.remove(pending)) {
+                return;
+            }
+            this.rejected++;
+            waited = Duration.ofNanos(System.nanoTime() - pending.queuedAt).toSeconds();
+            ready = this.drain();
+        }
+        pending.future.completeExceptionally(new IllegalStateException("Rejected creation of " + pending.containerName
+                + " after waiting " + waited + "s for " + pending.memory + "MB and " + pending.cpus
+                + " cpus of host capacity"));
+        ready.forEach(admitted -> admitted.complete(null));
+    }
+
+    public synchronized boolean fits(int memory) {
+        return this.queue.isEmpty() && this.memoryCommitted + this.containerMemory(memory) <= this.memoryLimit
+                && this.cpuCommitted + this.cpusPerServer <= this.cpuLimit + 1e-9;
+    }
+
+    public synchronized void commit(String containerName, String containerId, int memory) {
+        this.releaseReservation(containerName);
+        Reservation reservation = new Reservation(this.containerMemory(memory), this.cpusPerServer);
+        reservation.containerId = containerId;
+        this.reservations.put(containerName, reservation);
+        this.memoryCommitted += reservation.memory;
+        this.cpuCommitted += reservation.cpus;
+    }
+
+    public synchronized void bind(String containerName, String containerId) {
+        Reservation reservation = this.reservations.get(containerName);
+        if (reservation != null) {
+            reservation.containerId = containerId;
+        }
+    }
+
+    public void release(String containerName) {
+        List<CompletableFuture<Void>> ready;
+        synchronized (this) {
+            if (!this.releaseReservation(containerName)) {
+                return;
+            }
+            ready = this.drain();
+        }
+        ready.forEach(admitted -> admitted.complete(null));
+    }
+
+    @Override
+    public void onContainerEvent(String action, String containerName, String containerId) {
+        if (!action.equals("destroy") && !action.equals("die")) {
+            return;
+        }
+        synchronized (this) {
+            Reservation reservation = this.reservations.get(containerName);
+            if (reservation == null || !containerId.equals(reservation.containerId)) {
+                return;
+            }
+        }
+        this.release(containerName);
+    }
+
+    public void setCapacity(long memoryLimit, double cpuLimit) {
+        List<CompletableFuture<Void>> ready;
+        synchronized (this) {
+            this.memoryLimit = memoryLimit;
+            this.cpuLimit = cpuLimit;
+            ready = this.drain();
+        }
+        ready.forEach(admitted -> admitted.complete(null));
+    }
+
+    public synchronized void setCpusPerServer(double cpusPerServer) {
+        this.cpusPerServer = cpusPerServer;
+    }
+
+    public synchronized double getCpusPerServer() {
+        return this.cpusPerServer;
+    }
+
+    public synchronized void setAdmissionTimeout(Duration admissionTimeout) {
+        this.admissionTimeout = admissionTimeout;
+    }
+
+    public synchronized boolean isCommitted(String containerName) {
+        return this.reservations.containsKey(containerName);
+    }
+
+    public synchronized void setCpuCap(double cpuCap) {
+        this.cpuCap = Math.max(0, cpuCap);
+    }
+
+    public synchronized double getCpuCap() {
+        return this.cpuCap;
+    }
+
+    public long containerMemory(int memory) {
+        if (memory <= 0) {
+            return 0;
+        }
+        return memory + Math.max(MINIMUM_MEMORY_OVERHEAD, (long) memory * MEMORY_OVERHEAD_PERCENT / 100);
+    }
+
+    public synchronized AdmissionMetrics getMetrics() {
+        return new AdmissionMetrics(this.memoryLimit, this.memoryCommitted, this.cpuLimit, this.cpuCommitted,
+                this.queue.size(), this.admitted, this.delayed, this.rejected,
+                this.admitted == 0 ? Duration.ZERO : Duration.ofNanos(this.totalWaitNanos / this.admitted));
+    }
+
+    private boolean releaseReservation(String containerName) {
+        Reservation reservation = this.reservations.remove(containerName);
+        if (reservation == null) {
+            return false;
+        }
+        this.memoryCommitted -= reservation.memory;
+        this.cpuCommitted -= reservation.cpus;
+        return true;
+    }
+
+    private List<CompletableFuture<Void>> drain() {
+        List<CompletableFuture<Void>> ready = new ArrayList<>();
+        Iterator<Pending> iterator = this.queue.iterator();
+        while (iterator.hasNext()) {
+            Pending pending = iterator.next();
+            if (pending.future.isDone()) {
+                iterator.remove();
+                continue;
+            }
+            if (this.memoryCommitted + pending.memory > this.memoryLimit
+                    || this.cpuCommitted + pending.cpus > this.cpuLimit + 1e-9) {
+                break;
+            }
+            iterator.remove();
+            this.reservations.put(pending.containerName, new Reservation(pending.memory, pending.cpus));
+            this.memoryCommitted += pending.memory;
+            this.cpuCommitted += pending.cpus;
+            this.admitted++;
+            this.totalWaitNanos += System.nanoTime() - pending.queuedAt;
+            ready.add(pending.future);
+        }
+        return ready;
+    }
+
+    private static long defaultMemoryLimit() {
+        OperatingSystemMXBean bean = ManagementFactory.getOperatingSystemMXBean();
+        if (bean instanceof com.sun.management.OperatingSystemMXBean osBean) {
+            return osBean.getTotalMemorySize() / (1024 * 1024) * 90 / 100;
+        }
+        return Long.MAX_VALUE;
+    }
+
+    private static final class Reservation {
+        private final long memory;
+        private final double cpus;
+        private String containerId;
+
+        private Reservation(long memory, double cpus) {
+            this.memory = memory;
+            this.cpus = cpus;
+        }
+    }
+
+    private record Pending(String containerName, long memory, double cpus, long queuedAt,
+                           CompletableFuture<Void> future) {
+    }
+}
@@ -0,0 +1,14 @@
+package com.nexoscript.dsm.common.server.admission;
+
+import java.time.Duration;
+
+public record AdmissionMetrics(long memoryLimit, long memoryCommitted, double cpuLimit, double cpuCommitted,
+                               int queued, long admitted, long delayed, long rejected, Duration averageWait) {
+    public double memoryUtilization() {
+        return this.memoryLimit == 0 ? 0 : (double) this.memoryCommitted / this.memoryLimit;
+    }
+
+    public double cpuUtilization() {
+        return this.cpuLimit == 0 ? 0 : this.cpuCommitted / this.cpuLimit;
+    }
+}
@@ -0,0 +1,101 @@
+package com.nexoscript.dsm.common.server.bulk;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+public class BulkOperationExecutor {
+    private final int concurrency;
+    private final ExecutorService executor;
+
+    public BulkOperationExecutor(int concurrency) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Concurrency must be at least 1");
+        }
+        this.concurrency = concurrency;
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "dsm-bulk-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public <T> BulkOperationResult execute(String operation, Collection<T> targets, Function<T, String> nameFunction,
+                                           Consumer<T> action) {
+        long started = System.nanoTime();
+        List<CompletableFuture<BulkOperationResult.Outcome>> futures = new ArrayList<>(targets.size());
+        for (T target : targets) {
+            futures.add(CompletableFuture.supplyAsync(() -> run(nameFunction.apply(target), target, action), this.executor));
+        }
+        List<BulkOperationResult.Outcome> outcomes = new ArrayList<>(futures.size());
+        for (CompletableFuture<BulkOperationResult.Outcome> future : futures) {
+            outcomes.add(future.join());
+        }
+        return new BulkOperationResult(operation, outcomes, Duration.ofNanos(System.nanoTime() - started));
+    }
+
+    public <T> CompletableFuture<BulkOperationResult> compose(String operation, Collection<T> targets,
+                                                              Function<T, String> nameFunction,
+                                                              Function<T, CompletableFuture<?>> action) {
+        long started = System.nanoTime();
+        List<CompletableFuture<BulkOperationResult.Outcome>> futures = new ArrayList<>(targets.size());
+        for (T target : targets) {
+            String containerName = nameFunction.apply(target);
+            long actionStarted = System.nanoTime();
+            CompletableFuture<?> future;
+            try {
+                future = action.apply(target);
+            } catch (RuntimeException e) {
+                future = CompletableFuture.failedFuture(e);
+            }
+            futures.add(future.handle((result, throwable) -> {
+                Duration latency = Duration.ofNanos(System.nanoTime() - actionStarted);
+                if (throwable == null) {
+                    return new BulkOperationResult.Outcome(containerName, true, null, latency);
+                }
+                Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+                        ? throwable.getCause() : throwable;
+                String error = cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+                return new BulkOperationResult.Outcome(containerName, false, error, latency);
+            }));
+        }
+        return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> new BulkOperationResult(operation,
+                        futures.stream().map(CompletableFuture::join).toList(),
+                        Duration.ofNanos(System.nanoTime() - started)));
+    }
+
+    public CompletableFuture<Void> runAsync(Runnable action) {
+        return CompletableFuture.runAsync(action, this.executor);
+    }
+
+    private static <T> BulkOperationResult.Outcome run(String containerName, T target, Consumer<T> action) {
+        long started = System.nanoTime();
+        try {
+            action.accept(target);
+            return new BulkOperationResult.Outcome(containerName, true, null,
+                    Duration.ofNanos(System.nanoTime() - started));
+        } catch (RuntimeException e) {
+            String error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            return new BulkOperationResult.Outcome(containerName, false, error,
+                    Duration.ofNanos(System.nanoTime() - started));
+        }
+    }
+
+    public int getConcurrency() {
+        return this.concurrency;
+    }
+
+    public void shutdown() {
+        this.executor.shutdown();
+    }
+}
@@ -0,0 +1,43 @@
+package com.nexoscript.dsm.common.server.bulk;
+
+import java.time.Duration;
+import java.util.List;
+
+public class BulkOperationResult {
+    private final String operation;
+    private final List<Outcome> outcomes;
+    private final Duration duration;
+
+    public BulkOperationResult(String operation, List<Outcome> outcomes, Duration duration) {
+        this.operation = operation;
+        this.outcomes = List.copyOf(outcomes);
+        this.duration = duration;
+    }
+
+    public String getOperation() {
+        return this.operation;
+    }
+
+    public List<Outcome> getOutcomes() {
+        return this.outcomes;
+    }
+
+    public List<Outcome> getSuccesses() {
+        return this.outcomes.stream().filter(Outcome::success).toList();
+    }
+
+    public List<Outcome> getFailures() {
+        return this.outcomes.stream().filter(outcome -> !outcome.success()).toList();
+    }
+
+    public boolean isSuccessful() {
+        return this.outcomes.stream().allMatch(Outcome::success);
+    }
+
+    public Duration getDuration() {
+        return this.duration;
+    }
+
+    public record Outcome(String containerName, boolean success, String error, Duration latency) {
+    }
+}
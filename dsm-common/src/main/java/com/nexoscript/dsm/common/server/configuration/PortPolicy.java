@@ -0,0 +1,6 @@
+package com.nexoscript.dsm.common.server.configuration;
+
+public enum PortPolicy {
+    DYNAMIC,
+    FIXED
+}
@@ -0,0 +1,17 @@
+package com.nexoscript.dsm.common.server.configuration;
+
+import com.nexoscript.dsm.common.server.container.ServerContainer;
+
+public record ReconcileAction(Type type, ServerConfiguration configuration, ServerContainer container, int port) {
+    public enum Type {
+        REMOVE,
+        RECREATE,
+        CREATE
+    }
+
+    public String describe() {
+        String target = this.container != null ? this.container.getContainerName()
+                : this.configuration.getName() + (this.port > 0 ? ":" + this.port : "");
+        return this.type.name().toLowerCase() + " " + target;
+    }
+}
@@ -1,4 +1,168 @@
 package com.nexoscript.dsm.common.server.configuration;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import com.nexoscript.dsm.common.server.container.ServerContainer;
+
 public class ServerConfiguration {
+    private final String name;
+    private final String platform;
+    private final String version;
+    private final int memory;
+    private final String[] environmentVariables;
+    private final int replicas;
+    private final PortPolicy portPolicy;
+    private final int startPort;
+    private final String template;
+
+    public ServerConfiguration(String name, String platform, String version, int memory, String[] environmentVariables,
+                               int replicas, PortPolicy portPolicy, int startPort, String template) {
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("Server configuration needs a name");
+        }
+        if (replicas < 0) {
+            throw new IllegalArgumentException("Replicas of " + name + " must not be negative");
+        }
+        if (portPolicy == PortPolicy.FIXED && (startPort < 1 || startPort + replicas - 1 > 65535)) {
+            throw new IllegalArgumentException("Invalid fixed port range of " + name + ": " + startPort);
+        }
+        this.name = name;
+        this.platform = platform.toLowerCase(Locale.ROOT);
+        this.version = version.toLowerCase(Locale.ROOT);
+        this.memory = memory;
+        this.environmentVariables = environmentVariables;
+        this.replicas = replicas;
+        this.portPolicy = portPolicy;
+        this.startPort = startPort;
+        this.template = template;
+    }
+
+    public static List<ServerConfiguration> load(Path path) throws IOException {
+        try {
+            JSONObject root = new JSONObject(Files.readString(path, StandardCharsets.UTF_8));
+            JSONArray servers = root.getJSONArray("servers");
+            List<ServerConfiguration> configurations = new ArrayList<>(servers.length());
+            Set<String> names = new HashSet<>();
+            for (int i = 0; i < servers.length(); i++) {
+                ServerConfiguration configuration = fromJson(servers.getJSONObject(i));
+                if (!names.add(configuration.getName())) {
+                    throw new IllegalArgumentException("Duplicate server configuration " + configuration.getName());
+                }
+                configurations.add(configuration);
+            }
+            return configurations;
+        } catch (JSONException e) {
+            throw new IOException("Invalid server configuration " + path + ": " + e.getMessage(), e);
+        }
+    }
+
+    public static ServerConfiguration fromJson(JSONObject jsonObject) {
+        JSONObject port = jsonObject.optJSONObject("port");
+        PortPolicy portPolicy = port == null ? PortPolicy.DYNAMIC
+                : PortPolicy.valueOf(port.optString("policy", "dynamic").toUpperCase(Locale.ROOT));
+        return new ServerConfiguration(
+                jsonObject.getString("name"),
+                jsonObject.getString("platform"),
+                jsonObject.getString("version"),
+                jsonObject.getInt("memory"),
+                environmentVariables(jsonObject.opt("env")),
+                jsonObject.optInt("replicas", 1),
+                portPolicy,
+                port == null ? -1 : port.optInt("start", -1),
+                jsonObject.optString("template", null));
+    }
+
+    private static String[] environmentVariables(Object environment) {
+        if (environment instanceof JSONArray array) {
+            String[] environmentVariables = new String[array.length()];
+            for (int i = 0; i < environmentVariables.length; i++) {
+                environmentVariables[i] = array.getString(i);
+            }
+            return environmentVariables;
+        }
+        if (environment instanceof JSONObject object) {
+            return new TreeSet<>(object.keySet()).stream()
+                    .map(key -> key + "=" + object.get(key))
+                    .toArray(String[]::new);
+        }
+        return new String[0];
+    }
+
+    public JSONObject toJson() {
+        JSONObject configurationObject = new JSONObject();
+        configurationObject.put("name", this.name);
+        configurationObject.put("platform", this.platform);
+        configurationObject.put("version", this.version);
+        configurationObject.put("memory", this.memory);
+        configurationObject.put("env", new JSONArray(this.environmentVariables));
+        configurationObject.put("replicas", this.replicas);
+        JSONObject port = new JSONObject();
+        port.put("policy", this.portPolicy.name().toLowerCase(Locale.ROOT));
+        if (this.portPolicy == PortPolicy.FIXED) {
+            port.put("start", this.startPort);
+        }
+        configurationObject.put("port", port);
+        if (this.template != null) {
+            configurationObject.put("template", this.template);
+        }
+        return configurationObject;
+    }
+
+    public boolean matches(ServerContainer container) {
+        return this.platform.equalsIgnoreCase(String.valueOf(container.getPlatform()))
+                && this.version.equalsIgnoreCase(String.valueOf(container.getVersion()))
+                && this.memory == container.getMemory()
+                && Arrays.equals(this.environmentVariables, container.getEnvironmentVariables() == null
+                ? new String[0] : container.getEnvironmentVariables());
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public String getPlatform() {
+        return this.platform;
+    }
+
+    public String getVersion() {
+        return this.version;
+    }
+
+    public int getMemory() {
+        return this.memory;
+    }
+
+    public String[] getEnvironmentVariables() {
+        return this.environmentVariables;
+    }
+
+    public int getReplicas() {
+        return this.replicas;
+    }
+
+    public PortPolicy getPortPolicy() {
+        return this.portPolicy;
+    }
+
+    public int getStartPort() {
+        return this.startPort;
+    }
+
+    public String getTemplate() {
+        return this.template;
+    }
 }
@@ -0,0 +1,179 @@
+package com.nexoscript.dsm.common.server.configuration;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import com.nexoscript.dsm.common.server.bulk.BulkOperationExecutor;
+import com.nexoscript.dsm.common.server.bulk.BulkOperationResult;
+import com.nexoscript.dsm.common.server.container.ServerContainer;
+
+public class ServerReconciler {
+    private final Supplier<? extends Collection<ServerContainer>> containers;
+    private final Function<ReconcileAction, CompletableFuture<ServerContainer>> provisioner;
+    private final Consumer<ServerContainer> remover;
+    private final Set<String> busy;
+    private final Map<String, List<Integer>> pending;
+
+    public ServerReconciler(Supplier<? extends Collection<ServerContainer>> containers,
+                            Function<ReconcileAction, CompletableFuture<ServerContainer>> provisioner,
+                            Consumer<ServerContainer> remover) {
+        this.containers = containers;
+        this.provisioner = provisioner;
+        this.remover = remover;
+        this.busy = new HashSet<>();
+        this.pending = new HashMap<>();
+    }
+
+    public CompletableFuture<List<BulkOperationResult>> reconcile(Collection<ServerConfiguration> configurations,
+                                                                BulkOperationExecutor executor) {
+        Map<ReconcileAction.Type, List<ReconcileAction>> phases = new EnumMap<>(ReconcileAction.Type.class);
+        synchronized (this) {
+            for (ReconcileAction action : this.plan(configurations)) {
+                phases.computeIfAbsent(action.type(), type -> new ArrayList<>()).add(action);
+                this.track(action);
+            }
+        }
+        CompletableFuture<List<BulkOperationResult>> results = CompletableFuture.completedFuture(new ArrayList<>());
+        for (Map.Entry<ReconcileAction.Type, List<ReconcileAction>> phase : phases.entrySet()) {
+            results = results.thenCompose(completed -> executor.compose(phase.getKey().name().toLowerCase(),
+                            phase.getValue(), ReconcileAction::describe, action -> this.apply(action, executor))
+                    .thenApply(result -> {
+                        completed.add(result);
+                        return completed;
+                    }));
+        }
+        return results;
+    }
+
+    public synchronized List<ReconcileAction> plan(Collection<ServerConfiguration> configurations) {
+        Map<String, ServerConfiguration> desired = new HashMap<>();
+        for (ServerConfiguration configuration : configurations) {
+            desired.put(configuration.getName(), configuration);
+        }
+        Map<String, List<ServerContainer>> actual = new HashMap<>();
+        List<ReconcileAction> actions = new ArrayList<>();
+        for (ServerContainer container : this.containers.get()) {
+            String configuration = container.getConfiguration();
+            if (configuration == null || this.busy.contains(container.getContainerName())) {
+                continue;
+            }
+            if (!desired.containsKey(configuration)) {
+                actions.add(new ReconcileAction(ReconcileAction.Type.REMOVE, null, container, container.getPort()));
+                continue;
+            }
+            actual.computeIfAbsent(configuration, name -> new ArrayList<>()).add(container);
+        }
+        for (ServerConfiguration configuration : configurations) {
+            List<ServerContainer> members = actual.getOrDefault(configuration.getName(), List.of());
+            List<Integer> pending = this.pending.getOrDefault(configuration.getName(), List.of());
+            if (configuration.getPortPolicy() == PortPolicy.FIXED) {
+                this.planFixed(configuration, members, pending, actions);
+            } else {
+                this.planDynamic(configuration, members, pending.size(), actions);
+            }
+        }
+        return actions;
+    }
+
+    private void planFixed(ServerConfiguration configuration, List<ServerContainer> members, List<Integer> pending,
+                           List<ReconcileAction> actions) {
+        TreeSet<Integer> missingPorts = new TreeSet<>();
+        for (int i = 0; i < configuration.getReplicas(); i++) {
+            missingPorts.add(configuration.getStartPort() + i);
+        }
+        missingPorts.removeAll(pending);
+        for (ServerContainer container : this.ordered(configuration, members)) {
+            if (pending.contains(container.getPort())) {
+                continue;
+            }
+            if (!missingPorts.remove(container.getPort())) {
+                actions.add(new ReconcileAction(ReconcileAction.Type.REMOVE, configuration, container,
+                        container.getPort()));
+            } else if (!configuration.matches(container)) {
+                actions.add(new ReconcileAction(ReconcileAction.Type.RECREATE, configuration, container,
+                        container.getPort()));
+            }
+        }
+        for (int port : missingPorts) {
+            actions.add(new ReconcileAction(ReconcileAction.Type.CREATE, configuration, null, port));
+        }
+    }
+
+    private void planDynamic(ServerConfiguration configuration, List<ServerContainer> members, int pending,
+                             List<ReconcileAction> actions) {
+        List<ServerContainer> ordered = this.ordered(configuration, members);
+        for (int i = 0; i < ordered.size(); i++) {
+            ServerContainer container = ordered.get(i);
+            if (i + pending >= configuration.getReplicas()) {
+                if (pending > 0) {
+                    continue;
+                }
+                actions.add(new ReconcileAction(ReconcileAction.Type.REMOVE, configuration, container,
+                        container.getPort()));
+            } else if (!configuration.matches(container)) {
+                actions.add(new ReconcileAction(ReconcileAction.Type.RECREATE, configuration, container,
+                        container.getPort()));
+            }
+        }
+        for (int i = ordered.size() + pending; i < configuration.getReplicas(); i++) {
+            actions.add(new ReconcileAction(ReconcileAction.Type.CREATE, configuration, null, -1));
+        }
+    }
+
+    private List<ServerContainer> ordered(ServerConfiguration configuration, List<ServerContainer> members) {
+        List<ServerContainer> ordered = new ArrayList<>(members);
+        ordered.sort(Comparator.comparing((ServerContainer container) -> !configuration.matches(container))
+                .thenComparing(ServerContainer::getContainerName));
+        return ordered;
+    }
+
+    private CompletableFuture<?> apply(ReconcileAction action, BulkOperationExecutor executor) {
+        CompletableFuture<?> future;
+        try {
+            future = switch (action.type()) {
+                case REMOVE -> executor.runAsync(() -> this.remover.accept(action.container()));
+                case RECREATE -> executor.runAsync(() -> this.remover.accept(action.container()))
+                        .thenCompose(ignored -> this.provisioner.apply(action));
+                case CREATE -> this.provisioner.apply(action);
+            };
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        return future.whenComplete((result, throwable) -> this.settle(action));
+    }
+
+    private void track(ReconcileAction action) {
+        if (action.container() != null) {
+            this.busy.add(action.container().getContainerName());
+        }
+        if (action.type() != ReconcileAction.Type.REMOVE) {
+            this.pending.computeIfAbsent(action.configuration().getName(), name -> new ArrayList<>())
+                    .add(action.port());
+        }
+    }
+
+    private synchronized void settle(ReconcileAction action) {
+        if (action.container() != null) {
+            this.busy.remove(action.container().getContainerName());
+        }
+        if (action.type() != ReconcileAction.Type.REMOVE) {
+            List<Integer> ports = this.pending.get(action.configuration().getName());
+            ports.remove(Integer.valueOf(action.port()));
+            if (ports.isEmpty()) {
+                this.pending.remove(action.configuration().getName());
+            }
+        }
+    }
+}
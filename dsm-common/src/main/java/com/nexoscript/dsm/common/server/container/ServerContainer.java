@@ -1,20 +1,16 @@
 package com.nexoscript.dsm.common.server.container;
 
 import com.github.dockerjava.api.DockerClient;
-import com.github.dockerjava.api.async.ResultCallback;
 import com.github.dockerjava.api.command.CreateContainerResponse;
-import com.github.dockerjava.api.command.ExecCreateCmdResponse;
-import com.github.dockerjava.api.command.ExecStartCmd;
 import com.github.dockerjava.api.exception.NotModifiedException;
 import com.github.dockerjava.api.model.*;
-import org.json.JSONObject;
+import com.nexoscript.dsm.common.server.metadata.ServerMetadata;
 
-import java.io.Closeable;
 import java.io.File;
 import java.util.UUID;
 import java.util.stream.Stream;
 
-public class ServerContainer extends Thread {
+public class ServerContainer {
     private final String prefix;
     private final DockerClient dockerClient;
     private final String basePath;
@@ -26,6 +22,12 @@ public class ServerContainer extends Thread {
     private int port;
     private int memory;
     private String[] environmentVariables;
+    private String configuration;
+    private boolean pooled;
+    private String node;
+    private long memoryLimit;
+    private long nanoCpus;
+    private String image = "itzg/minecraft-server";
 
     public ServerContainer(String prefix, DockerClient dockerClient, String basePath, String platform, String version, int port, int memory, String[] environmentVariables) {
         this.prefix = prefix;
@@ -38,26 +40,24 @@ public class ServerContainer extends Thread {
         this.environmentVariables = environmentVariables;
     }
 
-    public ServerContainer(String prefix, DockerClient dockerClient, String basePath, String containerId, String uniqueId) {
+    public ServerContainer(String prefix, DockerClient dockerClient, String basePath, String containerId, String uniqueId, int port) {
         this.prefix = prefix;
         this.dockerClient = dockerClient;
         this.basePath = basePath;
         this.containerId = containerId;
+        this.port = port;
         this.uniqueId = UUID.fromString(uniqueId);
         this.serverPath = this.basePath + "/" + this.uniqueId + "/server";
     }
 
-    @Override
-    public void run() {
+    public void prepareDirectory(UUID uniqueId) {
+        this.uniqueId = uniqueId;
+        this.serverPath = this.basePath + "/" + this.uniqueId + "/server";
+        createServerDirectory(new File(this.serverPath));
     }
 
-    public String createAndStartContainer() {
-        this.uniqueId = UUID.randomUUID();
-        this.serverPath = this.basePath + "/" + this.uniqueId + "/server";
-        String imageName = "itzg/minecraft-server";
+    public String createContainer() {
         String containerName = this.prefix + "-" + this.uniqueId;
-        File serverDir = new File(this.serverPath);
-        createServerDirectory(serverDir);
         Volume serverVolume = new Volume("/data");
         ExposedPort containerPort = ExposedPort.tcp(25565);
         Ports portBindings = new Ports();
@@ -70,104 +70,48 @@ public class ServerContainer extends Thread {
                 "ONLINE_MODE=TRUE",
                 "AIKAR_FLAGS=TRUE"
         )).toArray(String[]::new);
-        CreateContainerResponse container = this.dockerClient.createContainerCmd(imageName)
+        CreateContainerResponse container = this.dockerClient.createContainerCmd(this.image)
                 .withName(containerName)
                 .withHostConfig(HostConfig.newHostConfig()
                         .withBinds(new Bind(this.serverPath, serverVolume))
                         .withPortBindings(portBindings)
-                        .withRestartPolicy(RestartPolicy.alwaysRestart()))
+                        .withRestartPolicy(RestartPolicy.alwaysRestart())
+                        .withMemory(this.memoryLimit > 0 ? this.memoryLimit : null)
+                        .withMemorySwap(this.memoryLimit > 0 ? this.memoryLimit : null)
+                        .withNanoCPUs(this.nanoCpus > 0 ? this.nanoCpus : null))
                 .withEnv(result)
                 .exec();
         this.containerId = container.getId();
-        System.out.println(this.containerId);
-        this.dockerClient.startContainerCmd(this.containerId).exec();
-        this.printContainerLogs();
-        JSONObject serverInfoObject = new JSONObject();
-        serverInfoObject.put("containerName", containerName);
-        serverInfoObject.put("containerId", this.containerId);
-        serverInfoObject.put("path", this.serverPath);
-        serverInfoObject.put("port", this.port);
-        String[] command = { "sh", "-c",
-                "echo '" + serverInfoObject
-                        + "' > /data/server-info.json" };
-        try {
-            ExecCreateCmdResponse execCreateCmdResponse = this.dockerClient.execCreateCmd(this.containerId)
-                    .withCmd(command).withAttachStdout(true).withAttachStderr(true).exec();
-
-            ExecStartCmd execStartCmd = this.dockerClient.execStartCmd(execCreateCmdResponse.getId())
-                    .withDetach(false).withTty(true);
-            execStartCmd.exec(new ResultCallback<>() {
-                @Override
-                public void onStart(Closeable closeable) {
-                }
-
-                @Override
-                public void onComplete() {
-                }
-
-                @Override
-                public void onError(Throwable throwable) {
-                }
-
-                @Override
-                public void onNext(Frame frame) {
-                }
-
-                @Override
-                public void close() {
-                }
-            });
-
-        } catch (Exception e) {
-            System.out.println(e.getMessage());
-        }
         return "/" + containerName;
     }
 
-    public String recreateAndStartContainerFromDirectory(String uniqueId) {
-        this.uniqueId = UUID.fromString(uniqueId);
-        this.serverPath = this.basePath + "/" + this.uniqueId + "/server";
-        String containerName = this.prefix + "-" + this.uniqueId;
-        File serverDir = new File(serverPath);
-        createServerDirectory(serverDir);
-        Volume serverVolume = new Volume("/data");
-        ExposedPort containerPort = ExposedPort.tcp(25565);
-        Ports portBindings = new Ports();
-        portBindings.bind(containerPort, Ports.Binding.bindPort(this.port));
-        String[] result = Stream.concat(Stream.of(environmentVariables), Stream.of(
-                "EULA=TRUE",
-                "TYPE=" + this.platform.toUpperCase(),
-                "VERSION=" + this.version,
-                "MEMORY=" + this.memory + "M",
-                "ONLINE_MODE=TRUE",
-                "AIKAR_FLAGS=TRUE"
-        )).toArray(String[]::new);
-        CreateContainerResponse container = this.dockerClient.createContainerCmd("itzg/minecraft-server")
-                .withName(containerName)
-                .withHostConfig(HostConfig.newHostConfig()
-                        .withBinds(new Bind(serverPath, serverVolume))
-                        .withPortBindings(portBindings)
-                        .withRestartPolicy(RestartPolicy.alwaysRestart()))
-                .withEnv(result)
-                .exec();
-        this.containerId = container.getId();
-        this.dockerClient.startContainerCmd(this.containerId).exec();
-        this.printContainerLogs();
-        return "/" + containerName;
+    public ServerMetadata toMetadata() {
+        return new ServerMetadata(this.getContainerName(), this.containerId, this.serverPath, this.port,
+                this.platform, this.version, this.memory, this.environmentVariables, this.configuration,
+                this.pooled, false);
     }
 
-    public void printContainerLogs() {
-        try {
-            this.dockerClient.logContainerCmd(this.containerId)
-                    .withStdOut(true)
-                    .withStdErr(true)
-                    .exec(new ResultCallback.Adapter<Frame>() {
-                        @Override
-                        public void onNext(Frame frame) {
-                        }
-                    }).awaitCompletion();
-        } catch (InterruptedException e) {
-            System.err.println("Fehler beim Abrufen der Logs: " + e.getMessage());
+    public void applyMetadata(ServerMetadata metadata) {
+        if (this.port <= 0 && metadata.port() > 0) {
+            this.port = metadata.port();
+        }
+        if (this.platform == null) {
+            this.platform = metadata.platform();
+        }
+        if (this.version == null) {
+            this.version = metadata.version();
+        }
+        if (this.memory == 0) {
+            this.memory = metadata.memory();
+        }
+        if (this.environmentVariables == null) {
+            this.environmentVariables = metadata.environmentVariables();
+        }
+        if (this.configuration == null) {
+            this.configuration = metadata.configuration();
+        }
+        if (metadata.pooled()) {
+            this.pooled = true;
         }
     }
 
@@ -224,4 +168,73 @@ public class ServerContainer extends Thread {
     public String getServerPath() {
         return this.serverPath;
     }
+
+    public String getContainerName() {
+        return this.prefix + "-" + this.uniqueId;
+    }
+
+    public UUID getUniqueId() {
+        return this.uniqueId;
+    }
+
+    public String getContainerId() {
+        return this.containerId;
+    }
+
+    public String getPlatform() {
+        return this.platform;
+    }
+
+    public String getVersion() {
+        return this.version;
+    }
+
+    public int getMemory() {
+        return this.memory;
+    }
+
+    public String[] getEnvironmentVariables() {
+        return this.environmentVariables;
+    }
+
+    public String getConfiguration() {
+        return this.configuration;
+    }
+
+    public void setConfiguration(String configuration) {
+        this.configuration = configuration;
+    }
+
+    public boolean isPooled() {
+        return this.pooled;
+    }
+
+    public void setPooled(boolean pooled) {
+        this.pooled = pooled;
+    }
+
+    public String getNode() {
+        return this.node;
+    }
+
+    public void setNode(String node) {
+        this.node = node;
+    }
+
+    public void setResourceLimits(long memoryLimit, long nanoCpus) {
+        this.memoryLimit = memoryLimit;
+        this.nanoCpus = nanoCpus;
+    }
+
+    public String getImage() {
+        return this.image;
+    }
+
+    public void setImage(String image) {
+        this.image = image;
+    }
+
+    public int getPort() {
+        return this.port;
+    }
 }
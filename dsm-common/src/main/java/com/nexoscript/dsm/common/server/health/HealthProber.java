@@ -0,0 +1,300 @@
+package com.nexoscript.dsm.common.server.health;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import com.nexoscript.dsm.common.server.ServerState;
+import com.nexoscript.dsm.common.server.container.ServerContainer;
+import com.nexoscript.dsm.common.server.registry.ContainerEventListener;
+import com.nexoscript.dsm.common.server.registry.ContainerRegistry;
+import com.nexoscript.dsm.common.server.scheduler.ServerScheduler;
+
+public class HealthProber implements ContainerEventListener {
+    private static final int PROTOCOL_VERSION = 47;
+    private static final int MAX_RESPONSE_BYTES = 2 * 1024 * 1024;
+
+    private final ContainerRegistry registry;
+    private final ServerScheduler scheduler;
+    private final String host;
+    private final long intervalNanos;
+    private final long timeoutNanos;
+    private final long degradedLatencyNanos;
+    private final Map<String, HealthStatus> statuses;
+    private final Set<String> inFlight;
+    private Selector selector;
+    private Thread thread;
+    private volatile boolean running;
+
+    public HealthProber(ContainerRegistry registry, ServerScheduler scheduler, String host, Duration interval,
+                        Duration timeout, Duration degradedLatency) {
+        this.registry = registry;
+        this.scheduler = scheduler;
+        this.host = host;
+        this.intervalNanos = interval.toNanos();
+        this.timeoutNanos = timeout.toNanos();
+        this.degradedLatencyNanos = degradedLatency.toNanos();
+        this.statuses = new ConcurrentHashMap<>();
+        this.inFlight = new HashSet<>();
+    }
+
+    public void start() throws IOException {
+        this.selector = Selector.open();
+        this.running = true;
+        this.thread = this.scheduler.startServiceThread("dsm-health-" + this.registry.getNode(), this::loop);
+    }
+
+    public HealthStatus getStatus(String containerName) {
+        return this.statuses.getOrDefault(containerName, HealthStatus.UNKNOWN);
+    }
+
+    public ServerState resolve(String containerName) {
+        HealthStatus status = this.getStatus(containerName);
+        if (!status.everReachable()) {
+            return ServerState.STARTING;
+        }
+        if (!status.reachable() || status.latency().toNanos() > this.degradedLatencyNanos) {
+            return ServerState.DEGRADED;
+        }
+        return ServerState.HEALTHY;
+    }
+
+    @Override
+    public void onContainerEvent(String action, String containerName, String containerId) {
+        switch (action) {
+            case "start" -> this.statuses.put(containerName, HealthStatus.UNKNOWN);
+            case "die", "destroy" -> this.statuses.remove(containerName);
+            default -> {
+            }
+        }
+    }
+
+    private void loop() {
+        long nextRound = System.nanoTime();
+        while (this.running) {
+            try {
+                long now = System.nanoTime();
+                if (now >= nextRound) {
+                    this.startRound(now);
+                    nextRound = now + this.intervalNanos;
+                }
+                long waitMillis = Math.max(1, Math.min(nextRound - now, this.timeoutNanos) / 1_000_000);
+                this.selector.select(waitMillis);
+                Iterator<SelectionKey> keys = this.selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    this.handle(key);
+                }
+                this.expire(System.nanoTime());
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Error in health prober: " + e.getMessage());
+            }
+        }
+        for (SelectionKey key : this.selector.keys()) {
+            this.close(key);
+        }
+        try {
+            this.selector.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    private void startRound(long now) {
+        for (ServerContainer container : this.registry.getAll()) {
+            String containerName = container.getContainerName();
+            if (container.getPort() <= 0 || !this.registry.isRunning(containerName)
+                    || !this.inFlight.add(containerName)) {
+                continue;
+            }
+            Probe probe = new Probe(containerName, now, this.request(container.getPort()));
+            try {
+                SocketChannel channel = SocketChannel.open();
+                channel.configureBlocking(false);
+                boolean connected = channel.connect(new InetSocketAddress(this.host, container.getPort()));
+                channel.register(this.selector, connected ? SelectionKey.OP_WRITE : SelectionKey.OP_CONNECT, probe);
+            } catch (IOException e) {
+                this.inFlight.remove(containerName);
+                this.fail(containerName);
+            }
+        }
+    }
+
+    private void handle(SelectionKey key) {
+        Probe probe = (Probe) key.attachment();
+        SocketChannel channel = (SocketChannel) key.channel();
+        try {
+            if (key.isConnectable()) {
+                channel.finishConnect();
+                key.interestOps(SelectionKey.OP_WRITE);
+                return;
+            }
+            if (key.isWritable()) {
+                channel.write(probe.request);
+                if (!probe.request.hasRemaining()) {
+                    key.interestOps(SelectionKey.OP_READ);
+                }
+                return;
+            }
+            if (key.isReadable()) {
+                if (!probe.response.hasRemaining()) {
+                    probe.growResponse();
+                }
+                if (channel.read(probe.response) < 0) {
+                    throw new IOException("Connection closed before status response");
+                }
+                String json = probe.decode();
+                if (json != null) {
+                    this.succeed(probe, json);
+                    this.close(key);
+                }
+            }
+        } catch (IOException | JSONException | IllegalStateException e) {
+            this.fail(probe.containerName);
+            this.close(key);
+        }
+    }
+
+    private void expire(long now) {
+        for (SelectionKey key : this.selector.keys()) {
+            Probe probe = (Probe) key.attachment();
+            if (probe != null && now - probe.started > this.timeoutNanos) {
+                this.fail(probe.containerName);
+                this.close(key);
+            }
+        }
+    }
+
+    private void succeed(Probe probe, String json) {
+        JSONObject status = new JSONObject(json);
+        JSONObject players = status.optJSONObject("players", new JSONObject());
+        JSONObject version = status.optJSONObject("version", new JSONObject());
+        long now = System.nanoTime();
+        this.statuses.put(probe.containerName, new HealthStatus(true, true, 0, Duration.ofNanos(now - probe.started),
+                players.optInt("online"), players.optInt("max"), version.optString("name", null), now));
+    }
+
+    private void fail(String containerName) {
+        this.statuses.compute(containerName, (name, previous) -> {
+            HealthStatus status = previous != null ? previous : HealthStatus.UNKNOWN;
+            return new HealthStatus(false, status.everReachable(), status.consecutiveFailures() + 1, status.latency(),
+                    status.playersOnline(), status.playersMax(), status.version(), status.lastSuccessNanos());
+        });
+    }
+
+    private void close(SelectionKey key) {
+        Probe probe = (Probe) key.attachment();
+        if (probe != null) {
+            this.inFlight.remove(probe.containerName);
+        }
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    private ByteBuffer request(int port) {
+        ByteArrayOutputStream handshake = new ByteArrayOutputStream();
+        writeVarInt(handshake, 0x00);
+        writeVarInt(handshake, PROTOCOL_VERSION);
+        byte[] address = this.host.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(handshake, address.length);
+        handshake.writeBytes(address);
+        handshake.write((port >> 8) & 0xFF);
+        handshake.write(port & 0xFF);
+        writeVarInt(handshake, 1);
+        ByteArrayOutputStream request = new ByteArrayOutputStream();
+        writeVarInt(request, handshake.size());
+        request.writeBytes(handshake.toByteArray());
+        writeVarInt(request, 1);
+        writeVarInt(request, 0x00);
+        return ByteBuffer.wrap(request.toByteArray());
+    }
+
+    private static void writeVarInt(ByteArrayOutputStream output, int value) {
+        while ((value & ~0x7F) != 0) {
+            output.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        output.write(value);
+    }
+
+    private static int readVarInt(ByteBuffer buffer) {
+        int value = 0;
+        for (int position = 0; position < 5; position++) {
+            byte current = buffer.get();
+            value |= (current & 0x7F) << (position * 7);
+            if ((current & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("VarInt too big");
+    }
+
+    public void shutdown() {
+        this.running = false;
+        if (this.selector != null) {
+            this.selector.wakeup();
+        }
+    }
+
+    private static final class Probe {
+        private final String containerName;
+        private final long started;
+        private final ByteBuffer request;
+        private ByteBuffer response;
+
+        private Probe(String containerName, long started, ByteBuffer request) {
+            this.containerName = containerName;
+            this.started = started;
+            this.request = request;
+            this.response = ByteBuffer.allocate(4096);
+        }
+
+        private void growResponse() {
+            if (this.response.capacity() >= MAX_RESPONSE_BYTES) {
+                throw new IllegalStateException("Status response too large");
+            }
+            ByteBuffer grown = ByteBuffer.allocate(Math.min(MAX_RESPONSE_BYTES, this.response.capacity() * 2));
+            this.response.flip();
+            grown.put(this.response);
+            this.response = grown;
+        }
+
+        private String decode() {
+            ByteBuffer view = this.response.duplicate().flip();
+            try {
+                int length = readVarInt(view);
+                if (view.remaining() < length) {
+                    return null;
+                }
+                int packetId = readVarInt(view);
+                if (packetId != 0x00) {
+                    throw new IllegalStateException("Unexpected packet " + packetId);
+                }
+                int jsonLength = readVarInt(view);
+                byte[] json = new byte[jsonLength];
+                view.get(json);
+                return new String(json, StandardCharsets.UTF_8);
+            } catch (BufferUnderflowException e) {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.nexoscript.dsm.common.server.health;
+
+import java.time.Duration;
+
+public record HealthStatus(boolean reachable, boolean everReachable, int consecutiveFailures, Duration latency,
+                           int playersOnline, int playersMax, String version, long lastSuccessNanos) {
+    public static final HealthStatus UNKNOWN = new HealthStatus(false, false, 0, Duration.ZERO, 0, 0, null, 0);
+}
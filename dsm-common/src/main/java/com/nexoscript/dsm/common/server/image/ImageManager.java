@@ -0,0 +1,172 @@
+package com.nexoscript.dsm.common.server.image;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.command.PullImageResultCallback;
+import com.github.dockerjava.api.exception.ConflictException;
+import com.github.dockerjava.api.exception.NotFoundException;
+
+public class ImageManager {
+    public static final String DEFAULT_IMAGE = "itzg/minecraft-server:latest";
+
+    private final DockerClient dockerClient;
+    private final Map<String, String> platformImages;
+    private final long diskBudgetBytes;
+    private final Map<String, CompletableFuture<String>> pulls;
+    private final Set<String> availableImages;
+    private final LinkedHashMap<String, Long> imageSizes;
+    private final ExecutorService executor;
+
+    public ImageManager(DockerClient dockerClient, Map<String, String> platformImages, long diskBudgetBytes) {
+        this.dockerClient = dockerClient;
+        this.platformImages = platformImages;
+        this.diskBudgetBytes = diskBudgetBytes;
+        this.pulls = new ConcurrentHashMap<>();
+        this.availableImages = ConcurrentHashMap.newKeySet();
+        this.imageSizes = new LinkedHashMap<>(16, 0.75f, true);
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "dsm-image-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public String resolveImage(String platform) {
+        String image = this.platformImages.get(platform.toLowerCase(Locale.ROOT));
+        return normalize(image != null ? image : DEFAULT_IMAGE);
+    }
+
+    public CompletableFuture<Void> prePull() {
+        Set<String> images = new LinkedHashSet<>();
+        images.add(normalize(DEFAULT_IMAGE));
+        this.platformImages.values().forEach(image -> images.add(normalize(image)));
+        return CompletableFuture.allOf(images.stream()
+                .map(image -> this.ensure(image).exceptionally(throwable -> {
+                    System.err.println("Error while pre-pulling image " + image + ": " + throwable.getMessage());
+                    return image;
+                }))
+                .toArray(CompletableFuture[]::new));
+    }
+
+    public CompletableFuture<String> ensureForPlatform(String platform) {
+        return this.ensure(this.resolveImage(platform));
+    }
+
+    public CompletableFuture<String> ensure(String image) {
+        String normalized = normalize(image);
+        if (this.availableImages.contains(normalized)) {
+            this.touch(normalized);
+            return CompletableFuture.completedFuture(normalized);
+        }
+        CompletableFuture<String> pull = this.pulls.computeIfAbsent(normalized,
+                key -> CompletableFuture.supplyAsync(() -> {
+                    this.fetch(key);
+                    this.availableImages.add(key);
+                    this.evict();
+                    return key;
+                }, this.executor));
+        pull.whenComplete((result, throwable) -> this.pulls.remove(normalized, pull));
+        return pull;
+    }
+
+    private void fetch(String image) {
+        try {
+            this.recordSize(image, this.dockerClient.inspectImageCmd(image).exec().getSize());
+            return;
+        } catch (NotFoundException ignored) {
+        }
+        int separator = tagSeparator(image);
+        try {
+            this.dockerClient.pullImageCmd(image.substring(0, separator))
+                    .withTag(image.substring(separator + 1))
+                    .exec(new PullImageResultCallback())
+                    .awaitCompletion();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        }
+        this.recordSize(image, this.dockerClient.inspectImageCmd(image).exec().getSize());
+    }
+
+    private void evict() {
+        List<String> candidates;
+        synchronized (this.imageSizes) {
+            long total = this.imageSizes.values().stream().mapToLong(Long::longValue).sum();
+            if (total <= this.diskBudgetBytes) {
+                return;
+            }
+            candidates = new ArrayList<>(this.imageSizes.keySet());
+        }
+        for (String image : candidates) {
+            if (this.isConfigured(image) || this.pulls.containsKey(image) || this.isInUse(image)) {
+                continue;
+            }
+            try {
+                this.dockerClient.removeImageCmd(image).exec();
+            } catch (NotFoundException | ConflictException e) {
+                continue;
+            }
+            this.availableImages.remove(image);
+            synchronized (this.imageSizes) {
+                this.imageSizes.remove(image);
+                if (this.imageSizes.values().stream().mapToLong(Long::longValue).sum() <= this.diskBudgetBytes) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private boolean isConfigured(String image) {
+        if (normalize(DEFAULT_IMAGE).equals(image)) {
+            return true;
+        }
+        return this.platformImages.values().stream().anyMatch(configured -> normalize(configured).equals(image));
+    }
+
+    private boolean isInUse(String image) {
+        return !this.dockerClient.listContainersCmd()
+                .withShowAll(true)
+                .withAncestorFilter(List.of(image))
+                .exec()
+                .isEmpty();
+    }
+
+    private void touch(String image) {
+        synchronized (this.imageSizes) {
+            this.imageSizes.get(image);
+        }
+    }
+
+    private void recordSize(String image, Long size) {
+        synchronized (this.imageSizes) {
+            this.imageSizes.put(image, size != null ? size : 0L);
+        }
+    }
+
+    public void shutdown() {
+        this.executor.shutdown();
+    }
+
+    private static String normalize(String image) {
+        return tagSeparator(image) < 0 ? image + ":latest" : image;
+    }
+
+    private static int tagSeparator(String image) {
+        int separator = image.lastIndexOf(':');
+        return separator > image.lastIndexOf('/') ? separator : -1;
+    }
+}
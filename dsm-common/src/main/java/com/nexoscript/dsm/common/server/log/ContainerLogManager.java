@@ -0,0 +1,202 @@
+package com.nexoscript.dsm.common.server.log;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.async.ResultCallback;
+import com.github.dockerjava.api.exception.NotFoundException;
+import com.github.dockerjava.api.model.Frame;
+import com.nexoscript.dsm.common.server.registry.ContainerEventListener;
+import com.nexoscript.dsm.common.server.scheduler.ServerScheduler;
+
+public class ContainerLogManager implements ContainerEventListener {
+    private final DockerClient dockerClient;
+    private final int capacityBytes;
+    private final int maxLines;
+    private final long idleTimeoutNanos;
+    private final Map<String, LogStream> streams;
+    private final ScheduledFuture<?> sweeper;
+
+    public ContainerLogManager(DockerClient dockerClient, ServerScheduler scheduler, int capacityBytes, int maxLines,
+                               Duration idleTimeout) {
+        this.dockerClient = dockerClient;
+        this.capacityBytes = capacityBytes;
+        this.maxLines = maxLines;
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        this.streams = new ConcurrentHashMap<>();
+        Duration sweepInterval = idleTimeout.dividedBy(4);
+        this.sweeper = scheduler.scheduleAtFixedRate("log sweep", this::closeIdle, sweepInterval, sweepInterval);
+    }
+
+    public void follow(String containerId) {
+        LogStream stream = this.streams.computeIfAbsent(containerId,
+                id -> new LogStream(new LogRingBuffer(this.capacityBytes, this.maxLines)));
+        stream.lastAccess = System.nanoTime();
+        synchronized (stream) {
+            if (stream.active) {
+                return;
+            }
+            stream.active = true;
+            int since = (int) (System.currentTimeMillis() / 1000);
+            if (!stream.backlogLoaded) {
+                this.loadBacklog(containerId, stream);
+                stream.backlogLoaded = true;
+            }
+            try {
+                stream.handle = this.dockerClient.logContainerCmd(containerId)
+                        .withStdOut(true)
+                        .withStdErr(true)
+                        .withFollowStream(true)
+                        .withSince(since)
+                        .exec(new ResultCallback.Adapter<Frame>() {
+                            @Override
+                            public void onNext(Frame frame) {
+                                stream.append(frame.getPayload());
+                            }
+
+                            @Override
+                            public void onError(Throwable throwable) {
+                                stream.active = false;
+                            }
+
+                            @Override
+                            public void onComplete() {
+                                stream.active = false;
+                            }
+                        });
+            } catch (NotFoundException e) {
+                stream.active = false;
+                this.streams.remove(containerId);
+                throw e;
+            }
+        }
+    }
+
+    private void loadBacklog(String containerId, LogStream stream) {
+        try {
+            this.dockerClient.logContainerCmd(containerId)
+                    .withStdOut(true)
+                    .withStdErr(true)
+                    .withTail(this.maxLines)
+                    .exec(new ResultCallback.Adapter<Frame>() {
+                        @Override
+                        public void onNext(Frame frame) {
+                            stream.append(frame.getPayload());
+                        }
+                    }).awaitCompletion(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public List<String> tail(String containerId, int lines) {
+        this.follow(containerId);
+        return this.streams.get(containerId).buffer.tail(lines);
+    }
+
+    public Closeable subscribe(String containerId, Consumer<String> subscriber) {
+        this.follow(containerId);
+        LogStream stream = this.streams.get(containerId);
+        stream.subscribers.add(subscriber);
+        return () -> stream.subscribers.remove(subscriber);
+    }
+
+    private void closeIdle() {
+        long now = System.nanoTime();
+        for (Map.Entry<String, LogStream> entry : this.streams.entrySet()) {
+            LogStream stream = entry.getValue();
+            if (stream.subscribers.isEmpty() && now - stream.lastAccess > this.idleTimeoutNanos
+                    && this.streams.remove(entry.getKey(), stream)) {
+                stream.close();
+            }
+        }
+    }
+
+    public int getActiveStreams() {
+        int active = 0;
+        for (LogStream stream : this.streams.values()) {
+            if (stream.active) {
+                active++;
+            }
+        }
+        return active;
+    }
+
+    public void remove(String containerId) {
+        LogStream stream = this.streams.remove(containerId);
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    public void close() {
+        this.sweeper.cancel(false);
+        this.streams.values().forEach(LogStream::close);
+        this.streams.clear();
+    }
+
+    @Override
+    public void onContainerEvent(String action, String containerName, String containerId) {
+        switch (action) {
+            case "start" -> {
+                LogStream stream = this.streams.get(containerId);
+                if (stream != null && !stream.active) {
+                    this.follow(containerId);
+                }
+            }
+            case "destroy" -> this.remove(containerId);
+            default -> {
+            }
+        }
+    }
+
+    private static final class LogStream {
+        private final LogRingBuffer buffer;
+        private final List<Consumer<String>> subscribers;
+        private volatile Closeable handle;
+        private volatile boolean active;
+        private volatile long lastAccess;
+        private boolean backlogLoaded;
+
+        private LogStream(LogRingBuffer buffer) {
+            this.buffer = buffer;
+            this.subscribers = new CopyOnWriteArrayList<>();
+        }
+
+        private void append(byte[] payload) {
+            if (payload == null) {
+                return;
+            }
+            this.buffer.append(payload, this.subscribers.isEmpty() ? null : this::publish);
+        }
+
+        private void publish(String line) {
+            for (Consumer<String> subscriber : this.subscribers) {
+                subscriber.accept(line);
+            }
+        }
+
+        private void close() {
+            this.active = false;
+            this.subscribers.clear();
+            Closeable current = this.handle;
+            if (current == null) {
+                return;
+            }
+            try {
+                current.close();
+            } catch (IOException e) {
+                System.err.println("Error while closing log stream: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.nexoscript.dsm.common.server.log;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+public class LogRingBuffer {
+    private final byte[] data;
+    private final long[] lineStarts;
+    private final long[] lineEnds;
+    private long written;
+    private long lines;
+    private long currentLineStart;
+
+    public LogRingBuffer(int capacityBytes, int maxLines) {
+        if (capacityBytes < 1 || maxLines < 1) {
+            throw new IllegalArgumentException("Capacity and line count must be positive");
+        }
+        this.data = new byte[capacityBytes];
+        this.lineStarts = new long[maxLines];
+        this.lineEnds = new long[maxLines];
+    }
+
+    public synchronized int append(byte[] payload, Consumer<String> lineConsumer) {
+        int completed = 0;
+        int segmentStart = 0;
+        for (int i = 0; i < payload.length; i++) {
+            if (payload[i] != '\n') {
+                continue;
+            }
+            this.write(payload, segmentStart, i + 1 - segmentStart);
+            this.completeLine(lineConsumer);
+            this.currentLineStart = this.written;
+            segmentStart = i + 1;
+            completed++;
+        }
+        this.write(payload, segmentStart, payload.length - segmentStart);
+        return completed;
+    }
+
+    public synchronized List<String> tail(int count) {
+        long oldestReadable = this.written - this.data.length;
+        long first = Math.max(0, this.lines - Math.min(count, this.lineStarts.length));
+        List<String> result = new ArrayList<>((int) (this.lines - first));
+        for (long line = this.lines - 1; line >= first; line--) {
+            int slot = (int) (line % this.lineStarts.length);
+            if (this.lineStarts[slot] < oldestReadable) {
+                break;
+            }
+            result.add(this.decode(this.lineStarts[slot], this.lineEnds[slot]));
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    public synchronized long getBytesWritten() {
+        return this.written;
+    }
+
+    public synchronized long getLinesWritten() {
+        return this.lines;
+    }
+
+    private void write(byte[] payload, int offset, int length) {
+        if (length <= 0) {
+            return;
+        }
+        if (length > this.data.length) {
+            offset += length - this.data.length;
+            this.written += length - this.data.length;
+            length = this.data.length;
+        }
+        int position = (int) (this.written % this.data.length);
+        int firstChunk = Math.min(length, this.data.length - position);
+        System.arraycopy(payload, offset, this.data, position, firstChunk);
+        if (firstChunk < length) {
+            System.arraycopy(payload, offset + firstChunk, this.data, 0, length - firstChunk);
+        }
+        this.written += length;
+    }
+
+    private void completeLine(Consumer<String> lineConsumer) {
+        long end = this.written - 1;
+        if (end > this.currentLineStart && this.data[(int) ((end - 1) % this.data.length)] == '\r') {
+            end--;
+        }
+        int slot = (int) (this.lines % this.lineStarts.length);
+        this.lineStarts[slot] = this.currentLineStart;
+        this.lineEnds[slot] = end;
+        this.lines++;
+        if (lineConsumer != null && this.currentLineStart >= this.written - this.data.length) {
+            lineConsumer.accept(this.decode(this.currentLineStart, end));
+        }
+    }
+
+    private String decode(long start, long end) {
+        int length = (int) (end - start);
+        int position = (int) (start % this.data.length);
+        if (position + length <= this.data.length) {
+            return new String(this.data, position, length, StandardCharsets.UTF_8);
+        }
+        byte[] line = new byte[length];
+        int firstChunk = this.data.length - position;
+        System.arraycopy(this.data, position, line, 0, firstChunk);
+        System.arraycopy(this.data, 0, line, firstChunk, length - firstChunk);
+        return new String(line, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,48 @@
+package com.nexoscript.dsm.common.server.mailbox;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+public class ContainerMailbox {
+    private final Map<String, CompletableFuture<?>> tails;
+
+    public ContainerMailbox() {
+        this.tails = new ConcurrentHashMap<>();
+    }
+
+    public <T> CompletableFuture<T> submit(String containerName, Supplier<CompletableFuture<T>> operation) {
+        CompletableFuture<Void> gate = new CompletableFuture<>();
+        CompletableFuture<T> result = gate.thenCompose(ignored -> operation.get());
+        CompletableFuture<?> previous = this.tails.put(containerName, result);
+        result.whenComplete((value, error) -> this.tails.remove(containerName, result));
+        if (previous == null) {
+            gate.complete(null);
+        } else {
+            previous.whenComplete((value, error) -> gate.complete(null));
+        }
+        return result;
+    }
+
+    public void run(String containerName, Runnable operation) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        CompletableFuture<?> previous = this.tails.put(containerName, done);
+        try {
+            if (previous != null) {
+                previous.handle((value, error) -> null).join();
+            }
+            operation.run();
+            done.complete(null);
+        } catch (RuntimeException e) {
+            done.completeExceptionally(e);
+            throw e;
+        } finally {
+            this.tails.remove(containerName, done);
+        }
+    }
+
+    public int getBusyContainers() {
+        return this.tails.size();
+    }
+}
@@ -1,282 +1,876 @@
 package com.nexoscript.dsm.common.server.manager;
 
-import java.io.File;
+import java.io.Closeable;
 import java.io.IOException;
-import java.net.ServerSocket;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 import com.nexoscript.dsm.common.server.ServerState;
+import com.nexoscript.dsm.common.server.admission.AdmissionController;
+import com.nexoscript.dsm.common.server.admission.AdmissionMetrics;
+import com.nexoscript.dsm.common.server.bulk.BulkOperationExecutor;
+import com.nexoscript.dsm.common.server.bulk.BulkOperationResult;
+import com.nexoscript.dsm.common.server.configuration.ReconcileAction;
+import com.nexoscript.dsm.common.server.configuration.ServerConfiguration;
+import com.nexoscript.dsm.common.server.configuration.ServerReconciler;
 import com.nexoscript.dsm.common.server.container.ServerContainer;
-import org.json.JSONException;
-import org.json.JSONObject;
+import com.nexoscript.dsm.common.server.health.HealthStatus;
+import com.nexoscript.dsm.common.server.image.ImageManager;
+import com.nexoscript.dsm.common.server.mailbox.ContainerMailbox;
+import com.nexoscript.dsm.common.server.metadata.ServerMetadata;
+import com.nexoscript.dsm.common.server.metadata.ServerMetadataStore;
+import com.nexoscript.dsm.common.server.metrics.StatsSnapshot;
+import com.nexoscript.dsm.common.server.node.NodeConfiguration;
+import com.nexoscript.dsm.common.server.node.Placement;
+import com.nexoscript.dsm.common.server.node.PlacementStrategy;
+import com.nexoscript.dsm.common.server.node.ServerNode;
+import com.nexoscript.dsm.common.server.pool.PoolMetrics;
+import com.nexoscript.dsm.common.server.pool.PoolProfile;
+import com.nexoscript.dsm.common.server.pool.WarmPool;
+import com.nexoscript.dsm.common.server.port.PortAllocator;
+import com.nexoscript.dsm.common.server.provisioning.ProvisioningListener;
+import com.nexoscript.dsm.common.server.provisioning.ProvisioningStage;
+import com.nexoscript.dsm.common.server.recovery.RecoveryReport;
+import com.nexoscript.dsm.common.server.registry.ContainerEventListener;
+import com.nexoscript.dsm.common.server.scheduler.SchedulerMetrics;
+import com.nexoscript.dsm.common.server.scheduler.ServerScheduler;
+import com.nexoscript.dsm.common.server.template.TemplateStore;
+import com.nexoscript.dsm.common.server.transport.DockerTransport;
+import com.nexoscript.dsm.common.server.transport.TransportConfiguration;
+import com.nexoscript.dsm.common.server.transport.TransportMetrics;
 
 import com.github.dockerjava.api.DockerClient;
 import com.github.dockerjava.api.exception.NotFoundException;
 import com.github.dockerjava.api.model.Container;
+import com.github.dockerjava.api.model.Info;
 import com.github.dockerjava.core.DefaultDockerClientConfig;
 import com.github.dockerjava.core.DockerClientImpl;
-import com.github.dockerjava.httpclient5.ApacheDockerHttpClient;
+import com.github.dockerjava.transport.DockerHttpClient;
 
 public class ServerManager extends Thread {
+    public static final String LOCAL_NODE = "local";
+    private static final ProvisioningListener POOLED = (container, stage, elapsed, error) -> {
+        if (stage == ProvisioningStage.ALLOCATED) {
+            container.setPooled(true);
+        }
+    };
+
     private final String prefix;
     private final int startPort;
     private final String basePath;
-    private DockerClient dockerClient;
-    private HashMap<String, ServerContainer> serverContainers;
-    private HashMap<String, Path> containerPaths;
+    private final Duration snapshotTtl;
+    private final PortAllocator portAllocator;
+    private final Map<String, String> platformImages;
+    private final WarmPool warmPool;
+    private final ServerMetadataStore metadataStore;
+    private final Set<String> stoppingContainers;
+    private final AdmissionController admission;
+    private final List<ServerNode> nodes;
+    private final List<NodeConfiguration> nodeConfigurations;
+    private final ServerReconciler reconciler;
+    private final ExecutorService nodeExecutor;
+    private final ServerScheduler scheduler;
+    private final ContainerMailbox mailbox;
+    private final List<ContainerEventListener> eventListeners;
+    private final TemplateStore templates;
+    private long imageDiskBudget;
+    private TransportConfiguration transportConfiguration;
+    private PlacementStrategy placementStrategy;
+    private volatile BulkOperationExecutor bulkExecutor;
+    private volatile ServerNode localNode;
+    private volatile boolean started;
+    private boolean recoverOnStartup;
+    private Path configurationFile;
+    private Duration reconcileInterval;
+    private volatile boolean closed;
 
     public ServerManager(String prefix, int startPort, String basePath) {
+        this(prefix, startPort, basePath, Duration.ofSeconds(2));
+    }
+
+    public ServerManager(String prefix, int startPort, String basePath, Duration snapshotTtl) {
         this.prefix = prefix;
         this.startPort = startPort;
         this.basePath = basePath;
+        this.snapshotTtl = snapshotTtl;
+        this.portAllocator = new PortAllocator(startPort);
+        this.platformImages = new ConcurrentHashMap<>();
+        this.imageDiskBudget = 20L * 1024 * 1024 * 1024;
+        this.transportConfiguration = new TransportConfiguration();
+        this.placementStrategy = Placement.LEAST_LOADED;
+        this.metadataStore = new ServerMetadataStore();
+        this.stoppingContainers = ConcurrentHashMap.newKeySet();
+        this.admission = new AdmissionController();
+        this.nodes = new CopyOnWriteArrayList<>();
+        this.nodeConfigurations = new CopyOnWriteArrayList<>();
+        this.bulkExecutor = new BulkOperationExecutor(8);
+        this.scheduler = new ServerScheduler(4);
+        this.mailbox = new ContainerMailbox();
+        this.eventListeners = new CopyOnWriteArrayList<>();
+        this.templates = new TemplateStore(Path.of(basePath, "templates"), Path.of(basePath, "jar-cache"), 4);
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.nodeExecutor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "dsm-node-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.warmPool = new WarmPool(profile -> this.provision(UUID.randomUUID(), profile.memory(),
+                (node, uniqueId) -> node.getProvisioner().provision(profile.platform(), profile.version(), uniqueId,
+                        profile.memory(), new String[0], POOLED)), this::retire);
+        this.reconciler = new ServerReconciler(this::getServerContainers, this::provision,
+                container -> this.mailbox.run(container.getContainerName(), () -> this.remove(container)));
     }
 
     @Override
     public void run() {
         DefaultDockerClientConfig config = DefaultDockerClientConfig.createDefaultConfigBuilder()
                 .build();
-        ApacheDockerHttpClient httpClient = new ApacheDockerHttpClient.Builder()
-                .dockerHost(config.getDockerHost())
-                .sslConfig(config.getSSLConfig())
-                .maxConnections(100)
-                .connectionTimeout(Duration.ofSeconds(30))
-                .responseTimeout(Duration.ofSeconds(45))
-                .build();
-        this.dockerClient = DockerClientImpl.getInstance(config, httpClient);
-        this.mapping();
+        DockerTransport httpClient = new DockerTransport(config.getDockerHost(), config.getSSLConfig(),
+                this.transportConfiguration);
+        this.initialize(DockerClientImpl.getInstance(config, httpClient), httpClient);
+        for (NodeConfiguration configuration : this.nodeConfigurations) {
+            try {
+                this.connect(configuration);
+            } catch (RuntimeException e) {
+                System.err.println("Error while connecting node " + configuration.name() + ": " + e.getMessage());
+            }
+        }
+        this.fanOut(node -> {
+            node.start();
+            return node;
+        });
+        this.started = true;
+        if (this.recoverOnStartup) {
+            RecoveryReport report = this.recover();
+            report.failures().forEach(failure -> System.err.println("Failed to recover " + failure));
+            System.out.println("Recovered " + report.recovered() + " of " + report.scanned() + " servers ("
+                    + report.present() + " already present, " + report.failures().size() + " failed), scanned in "
+                    + report.scanDuration().toMillis() + "ms, ready in " + report.duration().toMillis() + "ms");
+        }
+        for (ServerContainer container : this.getServerContainers()) {
+            if (container.isPooled()) {
+                this.warmPool.adopt(new PoolProfile(container.getPlatform(), container.getVersion(),
+                        container.getMemory()), container);
+            }
+        }
+        this.warmPool.start();
+        this.scheduler.scheduleAtFixedRate("template-harvest", this::harvestJars, Duration.ofMinutes(1),
+                Duration.ofMinutes(1));
+        if (this.configurationFile != null) {
+            this.reconcileLoop();
+        }
+    }
+
+    private void reconcileLoop() {
+        List<ServerConfiguration> configurations = null;
+        long lastModified = -1;
+        while (!this.closed) {
+            try {
+                long modified = Files.getLastModifiedTime(this.configurationFile).toMillis();
+                if (configurations == null || modified != lastModified) {
+                    configurations = ServerConfiguration.load(this.configurationFile);
+                    lastModified = modified;
+                }
+                this.reconcileAsync(configurations);
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Error while reconciling " + this.configurationFile + ": " + e.getMessage());
+            }
+            try {
+                Thread.sleep(this.reconcileInterval.toMillis());
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    public void initialize(DockerClient dockerClient, DockerHttpClient httpClient) {
+        NodeConfiguration configuration = new NodeConfiguration(LOCAL_NODE, null, this.basePath,
+                this.portAllocator.getStartPort(), this.portAllocator.getEndPort(), -1, -1);
+        this.localNode = this.register(new ServerNode(this.prefix, configuration, dockerClient, httpClient,
+                this.portAllocator, this.admission, this.metadataStore, this.scheduler, this.templates,
+                this.platformImages, this.imageDiskBudget, this.snapshotTtl));
+    }
+
+    public void addNode(NodeConfiguration configuration) {
+        if (this.localNode == null) {
+            this.nodeConfigurations.add(configuration);
+            return;
+        }
+        this.connect(configuration);
+    }
+
+    public ServerNode addNode(NodeConfiguration configuration, DockerClient dockerClient,
+                              DockerHttpClient httpClient) {
+        if (this.getNode(configuration.name()) != null) {
+            throw new IllegalArgumentException("Node " + configuration.name() + " already exists");
+        }
+        Path basePath = Path.of(configuration.basePath());
+        if (configuration.isRemote() && (!Files.isDirectory(basePath) || !Files.isWritable(basePath))) {
+            throw new IllegalArgumentException("Node " + configuration.name() + " runs on "
+                    + configuration.dockerHost() + ", its basePath " + basePath
+                    + " must be shared storage mounted at the same path on this host");
+        }
+        long memory = configuration.memory();
+        double cpus = configuration.cpus();
+        if (memory <= 0 || cpus <= 0) {
+            Info info = dockerClient.infoCmd().exec();
+            if (memory <= 0) {
+                memory = info.getMemTotal() == null ? Long.MAX_VALUE : info.getMemTotal() / (1024 * 1024) * 90 / 100;
+            }
+            if (cpus <= 0) {
+                cpus = info.getNCPU() == null ? Double.MAX_VALUE : info.getNCPU() * 2.0;
+            }
+        }
+        AdmissionController admission = new AdmissionController(memory, cpus, this.admission.getCpusPerServer());
+        admission.setCpuCap(this.admission.getCpuCap());
+        ServerNode node = this.register(new ServerNode(this.prefix, configuration, dockerClient, httpClient,
+                new PortAllocator(configuration.startPort(), configuration.endPort()), admission, this.metadataStore,
+                this.scheduler, this.templates, this.platformImages, this.imageDiskBudget, this.snapshotTtl));
+        if (this.started) {
+            node.start();
+        }
+        return node;
+    }
+
+    private void connect(NodeConfiguration configuration) {
+        DefaultDockerClientConfig.Builder builder = DefaultDockerClientConfig.createDefaultConfigBuilder();
+        if (configuration.dockerHost() != null) {
+            builder.withDockerHost(configuration.dockerHost());
+        }
+        DefaultDockerClientConfig config = builder.build();
+        DockerTransport httpClient = new DockerTransport(config.getDockerHost(), config.getSSLConfig(),
+                this.transportConfiguration);
+        this.addNode(configuration, DockerClientImpl.getInstance(config, httpClient), httpClient);
+    }
+
+    private ServerNode register(ServerNode node) {
+        node.getRegistry().addListener(this.warmPool);
+        node.getRegistry().addListener(this::dispatch);
+        node.mapping();
+        this.nodes.add(node);
+        return node;
+    }
+
+    public void addContainerEventListener(ContainerEventListener listener) {
+        this.eventListeners.add(listener);
+    }
+
+    public void removeContainerEventListener(ContainerEventListener listener) {
+        this.eventListeners.remove(listener);
+    }
+
+    private void dispatch(String action, String containerName, String containerId) {
+        for (ContainerEventListener listener : this.eventListeners) {
+            try {
+                listener.onContainerEvent(action, containerName, containerId);
+            } catch (RuntimeException e) {
+                System.err.println("Error while dispatching " + action + " event of " + containerName + ": "
+                        + e.getMessage());
+            }
+        }
     }
 
     public ServerContainer createServerContainer(String platform, String version, int memory, String[] environmentVariables) {
-        this.mapping();
-        ServerContainer container = new ServerContainer(this.prefix, this.dockerClient, this.basePath, platform, version,
-                this.getFreePort(), memory, environmentVariables);
-        container.start();
-        String containerId = container.createAndStartContainer();
-        this.serverContainers.put(containerId, container);
-        return container;
+        return this.await(this.createServerContainerAsync(platform, version, memory, environmentVariables,
+                ProvisioningListener.NONE));
+    }
+
+    public CompletableFuture<ServerContainer> createServerContainerAsync(String platform, String version, int memory,
+                                                                         String[] environmentVariables,
+                                                                         ProvisioningListener listener) {
+        return this.createServerContainerAsync(platform, version, memory, environmentVariables, null, listener);
+    }
+
+    public CompletableFuture<ServerContainer> createServerContainerAsync(String platform, String version, int memory,
+                                                                         String[] environmentVariables,
+                                                                         String template,
+                                                                         ProvisioningListener listener) {
+        if (template == null && Arrays.stream(environmentVariables).allMatch(String::isBlank)) {
+            ServerContainer pooled = this.warmPool.claim(new PoolProfile(platform, version, memory));
+            if (pooled != null) {
+                pooled.setPooled(false);
+                long started = System.nanoTime();
+                return this.mailbox.submit(pooled.getContainerName(), () -> this.bulkExecutor.runAsync(() -> {
+                    this.metadataStore.write(pooled.toMetadata());
+                    ServerNode node = this.getNode(pooled.getNode());
+                    if (node != null && !node.getRegistry().isRunning(pooled.getContainerName())) {
+                        pooled.startContainer();
+                    }
+                })).handle((ignored, error) -> {
+                    Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+                    if (error != null) {
+                        Throwable cause = error.getCause() != null ? error.getCause() : error;
+                        listener.onProgress(pooled, ProvisioningStage.FAILED, elapsed, cause);
+                        throw new CompletionException(cause);
+                    }
+                    listener.onProgress(pooled, ProvisioningStage.READY, elapsed, null);
+                    return pooled;
+                });
+            }
+        }
+        return this.provision(UUID.randomUUID(), memory, (node, uniqueId) -> node.getProvisioner().provision(
+                platform, version, uniqueId, memory, environmentVariables, template, listener));
     }
 
     public ServerContainer recreateServerContainer(String platform, String version, String uniqueId, int memory, String[] environmentVariables) {
-        this.mapping();
-        ServerContainer container = new ServerContainer(this.prefix, this.dockerClient, this.basePath, platform, version,
-                this.getFreePort(), memory, environmentVariables);
-        container.start();
-        String containerId = container.recreateAndStartContainerFromDirectory(uniqueId);
-        this.serverContainers.put(containerId, container);
-        return container;
+        return this.await(this.recreateServerContainerAsync(platform, version, uniqueId, memory, environmentVariables,
+                ProvisioningListener.NONE));
     }
 
-    public void startServerContainer(String containerName) {
-        this.mapping();
-        if (containerName.equalsIgnoreCase("*")) {
-            for (ServerContainer container : this.serverContainers.values()) {
-                container.start();
+    public CompletableFuture<ServerContainer> recreateServerContainerAsync(String platform, String version,
+                                                                           String uniqueId, int memory,
+                                                                           String[] environmentVariables,
+                                                                           ProvisioningListener listener) {
+        return this.provision(UUID.fromString(uniqueId), memory, (node, id) -> node.getProvisioner().provision(
+                platform, version, id, memory, environmentVariables, listener));
+    }
+
+    private CompletableFuture<ServerContainer> provision(ReconcileAction action) {
+        ServerContainer previous = action.container();
+        ServerNode home = previous != null ? this.getNode(previous.getNode()) : null;
+        return this.provision(previous != null ? previous.getUniqueId() : UUID.randomUUID(),
+                action.configuration().getMemory(), home, (node, uniqueId) -> node.getProvisioner().provision(
+                        action.configuration(), uniqueId, action.port(), ProvisioningListener.NONE));
+    }
+
+    private CompletableFuture<ServerContainer> provision(UUID uniqueId, int memory,
+                                                         BiFunction<ServerNode, UUID, CompletableFuture<ServerContainer>> provisioner) {
+        return this.provision(uniqueId, memory, null, provisioner);
+    }
+
+    private CompletableFuture<ServerContainer> provision(UUID uniqueId, int memory, ServerNode home,
+                                                         BiFunction<ServerNode, UUID, CompletableFuture<ServerContainer>> provisioner) {
+        String containerName = this.prefix + "-" + uniqueId;
+        return this.mailbox.submit(containerName, () -> {
+            ServerNode node = home != null ? home : this.nodeOf(containerName);
+            return provisioner.apply(node != null ? node : this.place(memory), uniqueId);
+        });
+    }
+
+    private ServerNode place(int memory) {
+        return this.placementStrategy.place(this.nodes, memory);
+    }
+
+    private ServerContainer await(CompletableFuture<ServerContainer> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
             }
-            return;
+            throw e;
         }
-        if (!this.serverContainers.containsKey(containerName)) {
-            return;
+    }
+
+    public BulkOperationResult startServerContainer(String containerName) {
+        return this.apply("start", containerName, ServerContainer::startContainer);
+    }
+
+    public BulkOperationResult restartServerContainer(String containerName) {
+        return this.apply("restart", containerName, ServerContainer::restartContainer);
+    }
+
+    public BulkOperationResult stopServerContainer(String containerName) {
+        return this.apply("stop", containerName, container -> this.stopping(container, ServerContainer::stopContainer));
+    }
+
+    public BulkOperationResult removeServerContainer(String containerName) {
+        return this.apply("remove", containerName, this::remove);
+    }
+
+    private void remove(ServerContainer container) {
+        this.stopping(container, ServerContainer::removeContainer);
+        ServerNode node = this.getNode(container.getNode());
+        if (node != null) {
+            node.remove(container);
+        }
+        if (container.getServerPath() != null) {
+            this.metadataStore.markRemoved(container.toMetadata());
+        } else {
+            this.metadataStore.evict(container.getContainerName());
         }
-        ServerContainer serverContainer = this.serverContainers.get(containerName);
-        serverContainer.start();
     }
 
-    public void restartServerContainer(String containerName) {
-        this.mapping();
-        if (containerName.equalsIgnoreCase("*")) {
-            for (ServerContainer container : this.serverContainers.values()) {
-                container.restartContainer();
+    public List<BulkOperationResult> reconcile(Collection<ServerConfiguration> configurations) {
+        return this.reconcileAsync(configurations).join();
+    }
+
+    public CompletableFuture<List<BulkOperationResult>> reconcileAsync(Collection<ServerConfiguration> configurations) {
+        long started = System.nanoTime();
+        return this.reconciler.reconcile(configurations, this.bulkExecutor).thenApply(results -> {
+            if (results.isEmpty()) {
+                return results;
+            }
+            StringBuilder summary = new StringBuilder("Reconciled configuration:");
+            for (BulkOperationResult result : results) {
+                summary.append(' ').append(result.getOperation()).append(' ').append(result.getSuccesses().size())
+                        .append('/').append(result.getOutcomes().size());
+                for (BulkOperationResult.Outcome failure : result.getFailures()) {
+                    System.err.println("Failed to " + failure.containerName() + ": " + failure.error());
+                }
+            }
+            System.out.println(summary.append(" in ").append(Duration.ofNanos(System.nanoTime() - started).toMillis())
+                    .append("ms"));
+            return results;
+        });
+    }
+
+    public List<ReconcileAction> planReconcile(Collection<ServerConfiguration> configurations) {
+        return this.reconciler.plan(configurations);
+    }
+
+    public RecoveryReport recover() {
+        long started = System.nanoTime();
+        List<RecoveryReport> reports = this.fanOut(node -> node.getRecovery().recover(
+                (metadata, uniqueId) -> this.restore(node, metadata, uniqueId)));
+        int scanned = 0;
+        int present = 0;
+        int recovered = 0;
+        List<String> failures = new ArrayList<>();
+        Duration scanDuration = Duration.ZERO;
+        for (RecoveryReport report : reports) {
+            scanned += report.scanned();
+            present += report.present();
+            recovered += report.recovered();
+            failures.addAll(report.failures());
+            if (report.scanDuration().compareTo(scanDuration) > 0) {
+                scanDuration = report.scanDuration();
             }
-            return;
         }
-        if (!this.serverContainers.containsKey(containerName)) {
-            return;
+        return new RecoveryReport(scanned, present, recovered, List.copyOf(failures), scanDuration,
+                Duration.ofNanos(System.nanoTime() - started));
+    }
+
+    private CompletableFuture<ServerContainer> restore(ServerNode node, ServerMetadata metadata, UUID uniqueId) {
+        return this.provision(uniqueId, metadata.memory(), node, (target, id) -> target.getProvisioner().provision(
+                metadata, id, metadata.pooled() ? POOLED : ProvisioningListener.NONE)).thenApply(container -> {
+            if (container.isPooled()) {
+                this.warmPool.adopt(new PoolProfile(container.getPlatform(), container.getVersion(),
+                        container.getMemory()), container);
+            }
+            return container;
+        });
+    }
+
+    public void setRecoverOnStartup(boolean recoverOnStartup) {
+        this.recoverOnStartup = recoverOnStartup;
+    }
+
+    public void setConfigurationFile(Path configurationFile, Duration reconcileInterval) {
+        this.configurationFile = configurationFile;
+        this.reconcileInterval = reconcileInterval;
+    }
+
+    private void stopping(ServerContainer container, Consumer<ServerContainer> action) {
+        this.stoppingContainers.add(container.getContainerName());
+        try {
+            action.accept(container);
+        } finally {
+            this.stoppingContainers.remove(container.getContainerName());
         }
-        ServerContainer serverContainer = this.serverContainers.get(containerName);
-        serverContainer.restartContainer();
     }
 
-    public void stopServerContainer(String containerName) {
-        this.mapping();
+    private BulkOperationResult apply(String operation, String containerName, Consumer<ServerContainer> action) {
+        Consumer<ServerContainer> serialized = container -> this.mailbox.run(container.getContainerName(),
+                () -> action.accept(container));
         if (containerName.equalsIgnoreCase("*")) {
-            for (ServerContainer container : this.serverContainers.values()) {
-                container.stopContainer();
-            }
-            return;
+            return this.bulkExecutor.execute(operation, this.getServerContainers().stream()
+                            .filter(container -> !container.isPooled())
+                            .toList(), ServerContainer::getContainerName, serialized);
         }
-        if (!this.serverContainers.containsKey(containerName)) {
-            System.out.println("Container " + containerName + " not found");
-            return;
+        ServerNode node = this.nodeOf(containerName);
+        if (node == null) {
+            return new BulkOperationResult(operation, List.of(new BulkOperationResult.Outcome(containerName, false,
+                    "Container " + containerName + " not found", Duration.ZERO)), Duration.ZERO);
         }
-        ServerContainer serverContainer = this.serverContainers.get(containerName);
-        serverContainer.stopContainer();
+        return this.bulkExecutor.execute(operation, List.of(node.getRegistry().get(containerName)),
+                ServerContainer::getContainerName, serialized);
     }
 
-    public void removeServerContainer(String containerName) {
-        this.mapping();
-        if (containerName.equalsIgnoreCase("*")) {
-            for (ServerContainer container : this.serverContainers.values()) {
-                container.removeContainer();
+    private <T> List<T> fanOut(Function<ServerNode, T> action) {
+        List<ServerNode> nodes = List.copyOf(this.nodes);
+        if (nodes.size() == 1) {
+            return List.of(action.apply(nodes.get(0)));
+        }
+        List<CompletableFuture<T>> futures = new ArrayList<>(nodes.size());
+        for (ServerNode node : nodes) {
+            futures.add(CompletableFuture.supplyAsync(() -> action.apply(node), this.nodeExecutor)
+                    .exceptionally(error -> {
+                        Throwable cause = error.getCause() != null ? error.getCause() : error;
+                        System.err.println("Error on node " + node.getName() + ": " + cause.getMessage());
+                        return null;
+                    }));
+        }
+        List<T> results = new ArrayList<>(futures.size());
+        for (CompletableFuture<T> future : futures) {
+            T result = future.join();
+            if (result != null) {
+                results.add(result);
             }
-            return;
         }
-        if (!this.serverContainers.containsKey(containerName)) {
-            System.out.println("Container " + containerName + " not found");
-            return;
+        return results;
+    }
+
+    public void setPlatformImage(String platform, String image) {
+        this.platformImages.put(platform.toLowerCase(), image);
+    }
+
+    public void setImageDiskBudget(long imageDiskBudget) {
+        this.imageDiskBudget = imageDiskBudget;
+    }
+
+    public void setHostCapacity(long memory, double cpus) {
+        this.admission.setCapacity(memory, cpus);
+    }
+
+    public void setServerCpus(double cpus) {
+        this.admission.setCpusPerServer(cpus);
+        for (ServerNode node : this.nodes) {
+            node.getAdmission().setCpusPerServer(cpus);
         }
-        ServerContainer serverContainer = this.serverContainers.get(containerName);
-        serverContainer.removeContainer();
-        this.serverContainers.remove(containerName);
-        this.containerPaths.remove(containerName);
     }
 
-    public int getFreePort() {
-        int port = this.startPort;
-        while (true) {
-            try (ServerSocket serverSocket = new ServerSocket(port)) {
-                serverSocket.setReuseAddress(true);
-                if (!isPortUsedByContainer(port)) {
-                    return port;
-                }
-                port++;
-            } catch (IOException e) {
-                port++;
-            }
+    public void setServerCpuCap(double cpus) {
+        this.admission.setCpuCap(cpus);
+        for (ServerNode node : this.nodes) {
+            node.getAdmission().setCpuCap(cpus);
         }
     }
 
-    private boolean isPortUsedByContainer(int port) {
-        for (Path path : containerPaths.values()) {
-            File serverInfoFile = new File(path.toFile(), "server-info.json");
-            if (!serverInfoFile.exists()) {
-                System.out.println("File " + serverInfoFile.getAbsolutePath() + " not found");
+    public AdmissionMetrics getAdmissionMetrics() {
+        return this.admission.getMetrics();
+    }
+
+    public void setPlacementStrategy(PlacementStrategy placementStrategy) {
+        this.placementStrategy = placementStrategy;
+    }
+
+    public void setTransportConfiguration(TransportConfiguration transportConfiguration) {
+        this.transportConfiguration = transportConfiguration;
+    }
+
+    public List<TransportMetrics> getTransportMetrics() {
+        return this.localNode == null ? List.of() : this.localNode.getTransportMetrics();
+    }
+
+    public SchedulerMetrics getSchedulerMetrics() {
+        return this.scheduler.getMetrics();
+    }
+
+    public void saveTemplate(String containerName, String template) throws IOException {
+        ServerNode node = this.requireNode(containerName);
+        ServerContainer container = this.requireContainer(node, containerName);
+        if (node.getRegistry().isRunning(containerName)) {
+            throw new IllegalStateException("Stop " + containerName + " before saving it as template " + template);
+        }
+        this.templates.save(template, Path.of(container.getServerPath()));
+    }
+
+    public TemplateStore getTemplates() {
+        return this.templates;
+    }
+
+    private void harvestJars() {
+        for (ServerContainer container : this.getServerContainers()) {
+            if (container.getPlatform() == null || container.getVersion() == null
+                    || !this.getHealthStatus(container.getContainerName()).everReachable()) {
                 continue;
             }
             try {
-                String content = new String(Files.readAllBytes(serverInfoFile.toPath()));
-                JSONObject jsonObject = new JSONObject(content);
-                int containerPort = jsonObject.getInt("port");
-                if (containerPort == port) {
-                    return true;
-                }
+                this.templates.harvest(container.getPlatform(), container.getVersion(),
+                        Path.of(container.getServerPath()));
             } catch (IOException e) {
-                System.err.println(
-                        "Error while reading file " + serverInfoFile.getAbsolutePath() + ": " + e.getMessage());
-            } catch (JSONException e) {
-                System.err.println("Error while parse file content to json " + serverInfoFile.getAbsolutePath() + ": "
+                System.err.println("Error while caching server jars of " + container.getContainerName() + ": "
                         + e.getMessage());
             }
         }
-        return false;
+    }
+
+    public ServerScheduler getScheduler() {
+        return this.scheduler;
+    }
+
+    public int getBusyContainers() {
+        return this.mailbox.getBusyContainers();
+    }
+
+    public int getLogStreams() {
+        int streams = 0;
+        for (ServerNode node : this.nodes) {
+            streams += node.getLogManager().getActiveStreams();
+        }
+        return streams;
+    }
+
+    public ImageManager getImageManager() {
+        return this.localNode.getImageManager();
+    }
+
+    public void setPoolSize(String platform, String version, int memory, int size) {
+        this.warmPool.setSize(new PoolProfile(platform, version, memory), size);
+    }
+
+    private void retire(ServerContainer container) {
+        this.bulkExecutor.runAsync(() -> this.mailbox.run(container.getContainerName(), () -> this.discard(container)))
+                .exceptionally(throwable -> {
+                    System.err.println("Error while retiring pooled container " + container.getContainerName() + ": "
+                            + throwable.getMessage());
+                    return null;
+                });
+    }
+
+    private void discard(ServerContainer container) {
+        this.stopping(container, ServerContainer::removeContainer);
+        ServerNode node = this.getNode(container.getNode());
+        if (node != null) {
+            node.remove(container);
+            node.getProvisioner().deleteDirectory(container);
+        } else {
+            this.metadataStore.evict(container.getContainerName());
+        }
+    }
+
+    public List<PoolMetrics> getPoolMetrics() {
+        return this.warmPool.getMetrics();
+    }
+
+    public void setBulkConcurrency(int concurrency) {
+        BulkOperationExecutor previous = this.bulkExecutor;
+        this.bulkExecutor = new BulkOperationExecutor(concurrency);
+        previous.shutdown();
+    }
+
+    public List<String> tailLogs(String containerName, int lines) throws NotFoundException {
+        ServerNode node = this.requireNode(containerName);
+        return node.getLogManager().tail(this.requireContainer(node, containerName).getContainerId(), lines);
+    }
+
+    public Closeable followLogs(String containerName, Consumer<String> subscriber) throws NotFoundException {
+        ServerNode node = this.requireNode(containerName);
+        return node.getLogManager().subscribe(this.requireContainer(node, containerName).getContainerId(),
+                subscriber);
+    }
+
+    private ServerNode requireNode(String containerName) {
+        ServerNode node = this.nodeOf(containerName);
+        if (node == null) {
+            throw new NotFoundException("Container " + containerName + " not found");
+        }
+        return node;
+    }
+
+    private ServerContainer requireContainer(ServerNode node, String containerName) {
+        ServerContainer serverContainer = node.getRegistry().get(containerName);
+        if (serverContainer == null || serverContainer.getContainerId() == null) {
+            throw new NotFoundException("Container " + containerName + " not found");
+        }
+        return serverContainer;
+    }
+
+    public StatsSnapshot getContainerStats(String containerName) {
+        ServerNode node = this.nodeOf(containerName);
+        return node == null ? null : node.getStatsCollector().getStats(containerName);
+    }
+
+    public Map<String, StatsSnapshot> getAllContainerStats() {
+        Map<String, StatsSnapshot> stats = new HashMap<>();
+        for (ServerNode node : this.nodes) {
+            stats.putAll(node.getStatsCollector().getAllStats());
+        }
+        return stats;
+    }
+
+    public int getFreePort() {
+        return this.portAllocator.allocate();
+    }
+
+    public PortAllocator getPortAllocator() {
+        return this.portAllocator;
     }
 
     public ServerState getServerStateByName(String containerName) {
-        String state = "";
-        try {
-            state = this.getContainerByName(containerName).getState();
-        } catch (NullPointerException ignored) {
+        for (ServerNode node : this.nodes) {
+            Container container = node.getSnapshotCache().getByName(containerName);
+            if (container != null) {
+                return this.resolveState(node, container);
+            }
         }
-        return state.equalsIgnoreCase("running") ? ServerState.ONLINE : ServerState.OFFLINE;
+        return ServerState.STOPPED;
     }
 
     public ServerState getServerStateById(String containerId) throws NotFoundException {
-        String state = this.getContainerById(containerId).getState();
-        return state.equalsIgnoreCase("running") ? ServerState.ONLINE : ServerState.OFFLINE;
+        for (ServerNode node : this.nodes) {
+            Container container = node.getSnapshotCache().getById(containerId);
+            if (container != null) {
+                return this.resolveState(node, container);
+            }
+        }
+        throw new NotFoundException("Container " + containerId + " not found");
+    }
+
+    public HealthStatus getHealthStatus(String containerName) {
+        ServerNode node = this.nodeOf(containerName);
+        return (node != null ? node : this.localNode).getHealthProber().getStatus(containerName);
+    }
+
+    private ServerState resolveState(ServerNode node, Container container) {
+        String containerName = container.getNames()[0].replace("/", "");
+        if (this.stoppingContainers.contains(containerName)) {
+            return ServerState.STOPPING;
+        }
+        return switch (container.getState().toLowerCase()) {
+            case "created" -> ServerState.CREATING;
+            case "restarting" -> ServerState.STARTING;
+            case "running" -> node.getHealthProber().resolve(containerName);
+            case "paused" -> ServerState.DEGRADED;
+            case "removing" -> ServerState.STOPPING;
+            case "exited", "dead" -> {
+                int exitCode = exitCode(container.getStatus());
+                yield exitCode == 0 || exitCode == 143 ? ServerState.STOPPED : ServerState.CRASHED;
+            }
+            default -> ServerState.STOPPED;
+        };
+    }
+
+    private static int exitCode(String status) {
+        if (status == null) {
+            return 0;
+        }
+        int start = status.indexOf('(');
+        int end = status.indexOf(')', start + 1);
+        if (start < 0 || end < 0) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(status.substring(start + 1, end));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
     }
 
     public Container getContainerById(String containerId) {
-        return dockerClient.listContainersCmd()
-                .withShowAll(true)
-                .exec()
-                .stream()
-                .filter(container -> container.getId().equalsIgnoreCase(containerId))
-                .findFirst()
-                .orElseThrow(() -> new NotFoundException("Container " + containerId + " not found"));
+        for (ServerNode node : this.nodes) {
+            Container container = node.getSnapshotCache().getById(containerId);
+            if (container != null) {
+                return container;
+            }
+        }
+        throw new NotFoundException("Container " + containerId + " not found");
     }
 
     public Container getContainerByName(String containerName) {
-        return dockerClient.listContainersCmd()
-                .withShowAll(true)
-                .exec()
-                .stream()
-                .filter(container -> container.getNames()[0].equalsIgnoreCase("/" + containerName.replace("/", "")))
-                .findFirst()
-                .orElse(null);
+        for (ServerNode node : this.nodes) {
+            Container container = node.getSnapshotCache().getByName(containerName);
+            if (container != null) {
+                return container;
+            }
+        }
+        return null;
     }
 
     public List<Container> getContainers() throws NotFoundException {
-        List<Container> containers = dockerClient.listContainersCmd()
-                .withShowAll(true)
-                .exec();
-        if (containers.isEmpty()) {
-            return new ArrayList<>();
-        }
-        List<Container> ids = containers.stream()
-                .filter(container -> {
-                    String[] names = container.getNames();
-                    for (String name : names) {
-                        if (name.startsWith("/" + this.prefix +  "-")) {
-                            return true;
-                        }
-                    }
-                    return false;
-                }).toList();
-        if (ids.isEmpty()) {
-            return new ArrayList<>();
-        }
-        return ids;
+        List<List<Container>> containers = this.fanOut(node -> node.getSnapshotCache().getManagedContainers());
+        return containers.stream().flatMap(List::stream)
+                .filter(container -> !this.isPooled(container))
+                .toList();
+    }
+
+    private boolean isPooled(Container container) {
+        ServerContainer serverContainer = this.getServerContainer(container.getNames()[0].replace("/", ""));
+        return serverContainer != null && serverContainer.isPooled();
     }
 
     public Map<String, String> getContainerNamesAndIds() throws NotFoundException {
-        List<Container> containers = dockerClient.listContainersCmd()
-                .withShowAll(true)
-                .exec();
-        if (containers.isEmpty()) {
-            return new HashMap<>();
-        }
-        Map<String, String> ids = containers.stream()
-                .filter(container -> {
-                    String[] names = container.getNames();
-                    for (String name : names) {
-                        if (name.startsWith("/" + prefix +  "-")) {
-                            return true;
-                        }
-                    }
-                    return false;
-                })
-                .collect(Collectors.toMap(
-                        container -> container.getNames()[0].replace("/", ""),
-                        Container::getId));
-        if (ids.isEmpty()) {
-            return new HashMap<>();
+        Map<String, String> ids = new HashMap<>();
+        for (Container container : this.getContainers()) {
+            ids.put(container.getNames()[0].replace("/", ""), container.getId());
         }
         return ids;
     }
 
+    public ServerContainer getServerContainer(String containerName) {
+        ServerNode node = this.nodeOf(containerName);
+        return node == null ? null : node.getRegistry().get(containerName);
+    }
+
+    public List<ServerContainer> getServerContainers() {
+        List<ServerContainer> containers = new ArrayList<>();
+        for (ServerNode node : this.nodes) {
+            containers.addAll(node.getRegistry().getAll());
+        }
+        return containers;
+    }
+
     public void mapping() {
-        this.serverContainers = new HashMap<>();
-        this.containerPaths = new HashMap<>();
-        this.getContainerNamesAndIds().forEach((containerName, containerId) -> {
-            ServerContainer container = new ServerContainer(this.prefix, this.dockerClient, this.basePath, containerId,
-                    containerName.split(prefix + "-")[1]);
-            container.start();
-            this.serverContainers.put(containerName, container);
-            this.containerPaths.put(containerName, Path.of(container.getServerPath()));
+        this.fanOut(node -> {
+            node.mapping();
+            return node;
         });
     }
 
+    public ServerMetadata getServerMetadata(String containerName) {
+        return this.metadataStore.get(containerName);
+    }
+
+    public String getPrefix() {
+        return this.prefix;
+    }
+
+    public List<ServerNode> getNodes() {
+        return Collections.unmodifiableList(this.nodes);
+    }
+
+    public ServerNode getNode(String name) {
+        if (name == null) {
+            return null;
+        }
+        for (ServerNode node : this.nodes) {
+            if (node.getName().equals(name)) {
+                return node;
+            }
+        }
+        return null;
+    }
+
+    private ServerNode nodeOf(String containerName) {
+        for (ServerNode node : this.nodes) {
+            if (node.getRegistry().contains(containerName)) {
+                return node;
+            }
+        }
+        return null;
+    }
+
     public void close() {
-        try {
-            this.dockerClient.close();
-        } catch (IOException e) {
-            throw new RuntimeException(e);
+        this.closed = true;
+        this.interrupt();
+        this.warmPool.stop();
+        this.bulkExecutor.shutdown();
+        this.nodeExecutor.shutdown();
+        for (ServerNode node : this.nodes) {
+            node.close();
         }
+        this.scheduler.shutdown();
+        this.templates.shutdown();
     }
 }
@@ -0,0 +1,45 @@
+package com.nexoscript.dsm.common.server.metadata;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+public record ServerMetadata(String containerName, String containerId, String path, int port, String platform,
+                             String version, int memory, String[] environmentVariables, String configuration,
+                             boolean pooled, boolean removed) {
+
+    public JSONObject toJson() {
+        JSONObject serverInfoObject = new JSONObject();
+        serverInfoObject.put("containerName", this.containerName);
+        serverInfoObject.put("containerId", this.containerId);
+        serverInfoObject.put("path", this.path);
+        serverInfoObject.put("port", this.port);
+        serverInfoObject.put("platform", this.platform);
+        serverInfoObject.put("version", this.version);
+        serverInfoObject.put("memory", this.memory);
+        serverInfoObject.put("environmentVariables", new JSONArray(this.environmentVariables));
+        serverInfoObject.put("configuration", this.configuration);
+        serverInfoObject.put("pooled", this.pooled);
+        serverInfoObject.put("removed", this.removed);
+        return serverInfoObject;
+    }
+
+    public static ServerMetadata fromJson(JSONObject jsonObject) {
+        JSONArray environment = jsonObject.optJSONArray("environmentVariables");
+        String[] environmentVariables = new String[environment == null ? 0 : environment.length()];
+        for (int i = 0; i < environmentVariables.length; i++) {
+            environmentVariables[i] = environment.getString(i);
+        }
+        return new ServerMetadata(
+                jsonObject.getString("containerName"),
+                jsonObject.optString("containerId", null),
+                jsonObject.getString("path"),
+                jsonObject.getInt("port"),
+                jsonObject.optString("platform", null),
+                jsonObject.optString("version", null),
+                jsonObject.optInt("memory", 0),
+                environmentVariables,
+                jsonObject.optString("configuration", null),
+                jsonObject.optBoolean("pooled", false),
+                jsonObject.optBoolean("removed", false));
+    }
+}
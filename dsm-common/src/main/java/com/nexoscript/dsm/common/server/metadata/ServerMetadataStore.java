@@ -0,0 +1,98 @@
+package com.nexoscript.dsm.common.server.metadata;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+public class ServerMetadataStore {
+    public static final String FILE_NAME = "server-info.json";
+
+    private final Map<String, ServerMetadata> metadata;
+
+    public ServerMetadataStore() {
+        this.metadata = new ConcurrentHashMap<>();
+    }
+
+    public void write(ServerMetadata serverMetadata) {
+        Path serverInfoFile = Path.of(serverMetadata.path(), FILE_NAME);
+        Path temporaryFile = Path.of(serverMetadata.path(), FILE_NAME + ".tmp");
+        try {
+            Files.writeString(temporaryFile, serverMetadata.toJson().toString(), StandardCharsets.UTF_8);
+            try {
+                Files.move(temporaryFile, serverInfoFile, StandardCopyOption.ATOMIC_MOVE,
+                        StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporaryFile, serverInfoFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Error while writing file " + serverInfoFile + ": " + e.getMessage(), e);
+        }
+        this.metadata.put(serverMetadata.containerName(), serverMetadata);
+    }
+
+    public ServerMetadata get(String containerName) {
+        return this.metadata.get(containerName);
+    }
+
+    public ServerMetadata load(String containerName, Path serverPath) {
+        ServerMetadata cached = this.metadata.get(containerName);
+        if (cached != null) {
+            return cached;
+        }
+        ServerMetadata loaded = read(serverPath);
+        if (loaded != null) {
+            this.metadata.put(containerName, loaded);
+        }
+        return loaded;
+    }
+
+    public Collection<ServerMetadata> getAll() {
+        return this.metadata.values();
+    }
+
+    public void markRemoved(ServerMetadata serverMetadata) {
+        this.evict(serverMetadata.containerName());
+        if (!Files.isDirectory(Path.of(serverMetadata.path()))) {
+            return;
+        }
+        try {
+            this.write(new ServerMetadata(serverMetadata.containerName(), serverMetadata.containerId(),
+                    serverMetadata.path(), serverMetadata.port(), serverMetadata.platform(), serverMetadata.version(),
+                    serverMetadata.memory(), serverMetadata.environmentVariables(), serverMetadata.configuration(),
+                    serverMetadata.pooled(), true));
+        } catch (IllegalStateException e) {
+            System.err.println("Error while marking " + serverMetadata.containerName() + " as removed: "
+                    + e.getMessage());
+        }
+        this.evict(serverMetadata.containerName());
+    }
+
+    public void evict(String containerName) {
+        this.metadata.remove(containerName);
+    }
+
+    public static ServerMetadata read(Path serverPath) {
+        Path serverInfoFile = serverPath.resolve(FILE_NAME);
+        if (!Files.exists(serverInfoFile)) {
+            return null;
+        }
+        try {
+            return ServerMetadata.fromJson(new JSONObject(Files.readString(serverInfoFile, StandardCharsets.UTF_8)));
+        } catch (IOException e) {
+            System.err.println("Error while reading file " + serverInfoFile.toAbsolutePath() + ": " + e.getMessage());
+        } catch (JSONException e) {
+            System.err.println("Error while parse file content to json " + serverInfoFile.toAbsolutePath() + ": "
+                    + e.getMessage());
+        }
+        return null;
+    }
+}
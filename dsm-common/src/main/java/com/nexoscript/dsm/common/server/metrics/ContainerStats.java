@@ -0,0 +1,82 @@
+package com.nexoscript.dsm.common.server.metrics;
+
+public class ContainerStats {
+    private final String containerName;
+    private final long[] timestamps;
+    private final long[] cpuUsage;
+    private final long[] systemCpuUsage;
+    private final int[] onlineCpus;
+    private final long[] memoryUsage;
+    private final long[] networkRx;
+    private final long[] networkTx;
+    private final long[] blockRead;
+    private final long[] blockWrite;
+    private long memoryLimit;
+    private int samples;
+
+    public ContainerStats(String containerName, int window) {
+        this.containerName = containerName;
+        this.timestamps = new long[window];
+        this.cpuUsage = new long[window];
+        this.systemCpuUsage = new long[window];
+        this.onlineCpus = new int[window];
+        this.memoryUsage = new long[window];
+        this.networkRx = new long[window];
+        this.networkTx = new long[window];
+        this.blockRead = new long[window];
+        this.blockWrite = new long[window];
+    }
+
+    public synchronized void record(long timestamp, long cpuUsage, long systemCpuUsage, int onlineCpus,
+                                    long memoryUsage, long memoryLimit, long networkRx, long networkTx,
+                                    long blockRead, long blockWrite) {
+        int slot = this.samples % this.timestamps.length;
+        this.timestamps[slot] = timestamp;
+        this.cpuUsage[slot] = cpuUsage;
+        this.systemCpuUsage[slot] = systemCpuUsage;
+        this.onlineCpus[slot] = onlineCpus;
+        this.memoryUsage[slot] = memoryUsage;
+        this.networkRx[slot] = networkRx;
+        this.networkTx[slot] = networkTx;
+        this.blockRead[slot] = blockRead;
+        this.blockWrite[slot] = blockWrite;
+        this.memoryLimit = memoryLimit;
+        this.samples++;
+    }
+
+    public synchronized StatsSnapshot snapshot() {
+        int count = Math.min(this.samples, this.timestamps.length);
+        if (count == 0) {
+            return new StatsSnapshot(this.containerName, 0, 0, 0, 0, 0, 0, 0, 0, 0);
+        }
+        int latest = (this.samples - 1) % this.timestamps.length;
+        int oldest = (this.samples - count) % this.timestamps.length;
+        double cpuPercent = 0;
+        if (count > 1) {
+            int previous = (this.samples - 2) % this.timestamps.length;
+            cpuPercent = this.cpuPercent(previous, latest);
+        }
+        double averageCpuPercent = count > 1 ? this.cpuPercent(oldest, latest) : 0;
+        double seconds = (this.timestamps[latest] - this.timestamps[oldest]) / 1_000_000_000d;
+        return new StatsSnapshot(this.containerName, count, cpuPercent, averageCpuPercent,
+                this.memoryUsage[latest], this.memoryLimit,
+                rate(this.networkRx, oldest, latest, seconds), rate(this.networkTx, oldest, latest, seconds),
+                rate(this.blockRead, oldest, latest, seconds), rate(this.blockWrite, oldest, latest, seconds));
+    }
+
+    private double cpuPercent(int from, int to) {
+        long cpuDelta = this.cpuUsage[to] - this.cpuUsage[from];
+        long systemDelta = this.systemCpuUsage[to] - this.systemCpuUsage[from];
+        if (cpuDelta <= 0 || systemDelta <= 0) {
+            return 0;
+        }
+        return (double) cpuDelta / systemDelta * Math.max(1, this.onlineCpus[to]) * 100;
+    }
+
+    private static double rate(long[] counters, int from, int to, double seconds) {
+        if (seconds <= 0) {
+            return 0;
+        }
+        return Math.max(0, counters[to] - counters[from]) / seconds;
+    }
+}
@@ -0,0 +1,144 @@
+package com.nexoscript.dsm.common.server.metrics;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+
+import com.github.dockerjava.transport.DockerHttpClient;
+import com.nexoscript.dsm.common.server.container.ServerContainer;
+import com.nexoscript.dsm.common.server.registry.ContainerEventListener;
+import com.nexoscript.dsm.common.server.registry.ContainerRegistry;
+import com.nexoscript.dsm.common.server.scheduler.ServerScheduler;
+
+public class ContainerStatsCollector implements ContainerEventListener {
+    private final DockerHttpClient httpClient;
+    private final ContainerRegistry registry;
+    private final Duration interval;
+    private final int window;
+    private final Map<String, ContainerStats> stats;
+    private final Set<String> sampling;
+    private final ServerScheduler scheduler;
+    private ScheduledFuture<?> task;
+
+    public ContainerStatsCollector(DockerHttpClient httpClient, ContainerRegistry registry, ServerScheduler scheduler,
+                                   Duration interval, int window) {
+        this.httpClient = httpClient;
+        this.registry = registry;
+        this.interval = interval;
+        this.window = window;
+        this.stats = new ConcurrentHashMap<>();
+        this.sampling = ConcurrentHashMap.newKeySet();
+        this.scheduler = scheduler;
+    }
+
+    public void start() {
+        this.task = this.scheduler.scheduleAtFixedRate("stats", this::tick, Duration.ZERO, this.interval);
+    }
+
+    public StatsSnapshot getStats(String containerName) {
+        ContainerStats containerStats = this.stats.get(containerName);
+        return containerStats == null ? null : containerStats.snapshot();
+    }
+
+    public Map<String, StatsSnapshot> getAllStats() {
+        Map<String, StatsSnapshot> snapshots = new ConcurrentHashMap<>();
+        this.stats.forEach((containerName, containerStats) -> snapshots.put(containerName, containerStats.snapshot()));
+        return snapshots;
+    }
+
+    @Override
+    public void onContainerEvent(String action, String containerName, String containerId) {
+        if (action.equals("destroy")) {
+            this.stats.remove(containerName);
+        }
+    }
+
+    private void tick() {
+        for (ServerContainer container : this.registry.getAll()) {
+            String containerName = container.getContainerName();
+            if (container.getContainerId() == null || !this.registry.isRunning(containerName)
+                    || !this.sampling.add(containerName)) {
+                continue;
+            }
+            this.scheduler.execute("stats " + containerName, () -> {
+                try {
+                    this.sample(containerName, container.getContainerId());
+                } finally {
+                    this.sampling.remove(containerName);
+                }
+            });
+        }
+    }
+
+    private void sample(String containerName, String containerId) {
+        DockerHttpClient.Request request = DockerHttpClient.Request.builder()
+                .method(DockerHttpClient.Request.Method.GET)
+                .path("/containers/" + containerId + "/stats?stream=false&one-shot=true")
+                .build();
+        try (DockerHttpClient.Response response = this.httpClient.execute(request);
+             InputStream body = response.getBody()) {
+            if (response.getStatusCode() != 200) {
+                return;
+            }
+            this.record(containerName, new JSONObject(new JSONTokener(body)));
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error while sampling stats of " + containerName + ": " + e.getMessage());
+        }
+    }
+
+    private void record(String containerName, JSONObject statistics) {
+        JSONObject cpuStats = statistics.optJSONObject("cpu_stats", new JSONObject());
+        JSONObject memoryStats = statistics.optJSONObject("memory_stats", new JSONObject());
+        long memoryUsage = memoryStats.optLong("usage");
+        JSONObject memoryDetails = memoryStats.optJSONObject("stats");
+        if (memoryDetails != null) {
+            memoryUsage -= memoryDetails.optLong("inactive_file", memoryDetails.optLong("cache"));
+        }
+        long networkRx = 0;
+        long networkTx = 0;
+        JSONObject networks = statistics.optJSONObject("networks");
+        if (networks != null) {
+            for (String network : networks.keySet()) {
+                networkRx += networks.getJSONObject(network).optLong("rx_bytes");
+                networkTx += networks.getJSONObject(network).optLong("tx_bytes");
+            }
+        }
+        long blockRead = 0;
+        long blockWrite = 0;
+        JSONObject blkioStats = statistics.optJSONObject("blkio_stats");
+        JSONArray ioServiceBytes = blkioStats == null ? null : blkioStats.optJSONArray("io_service_bytes_recursive");
+        if (ioServiceBytes != null) {
+            for (int i = 0; i < ioServiceBytes.length(); i++) {
+                JSONObject entry = ioServiceBytes.getJSONObject(i);
+                String op = entry.optString("op");
+                if (op.equalsIgnoreCase("read")) {
+                    blockRead += entry.optLong("value");
+                } else if (op.equalsIgnoreCase("write")) {
+                    blockWrite += entry.optLong("value");
+                }
+            }
+        }
+        this.stats.computeIfAbsent(containerName, name -> new ContainerStats(name, this.window)).record(
+                System.nanoTime(),
+                cpuStats.optJSONObject("cpu_usage", new JSONObject()).optLong("total_usage"),
+                cpuStats.optLong("system_cpu_usage"),
+                cpuStats.optInt("online_cpus", 1),
+                Math.max(0, memoryUsage),
+                memoryStats.optLong("limit"),
+                networkRx, networkTx, blockRead, blockWrite);
+    }
+
+    public void shutdown() {
+        if (this.task != null) {
+            this.task.cancel(false);
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package com.nexoscript.dsm.common.server.metrics;
+
+public record StatsSnapshot(String containerName, int samples, double cpuPercent, double averageCpuPercent,
+                            long memoryUsage, long memoryLimit, double networkRxRate, double networkTxRate,
+                            double blockReadRate, double blockWriteRate) {
+}
@@ -0,0 +1,62 @@
+package com.nexoscript.dsm.common.server.node;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+public record NodeConfiguration(String name, String dockerHost, String basePath, int startPort, int endPort,
+                                long memory, double cpus) {
+
+    public static List<NodeConfiguration> load(Path path) throws IOException {
+        try {
+            JSONObject root = new JSONObject(Files.readString(path, StandardCharsets.UTF_8));
+            JSONArray nodes = root.getJSONArray("nodes");
+            List<NodeConfiguration> configurations = new ArrayList<>(nodes.length());
+            Set<String> names = new HashSet<>();
+            for (int i = 0; i < nodes.length(); i++) {
+                NodeConfiguration configuration = fromJson(nodes.getJSONObject(i));
+                if (!names.add(configuration.name())) {
+                    throw new IllegalArgumentException("Duplicate node " + configuration.name());
+                }
+                configurations.add(configuration);
+            }
+            return configurations;
+        } catch (JSONException e) {
+            throw new IOException("Invalid node configuration " + path + ": " + e.getMessage(), e);
+        }
+    }
+
+    public static NodeConfiguration fromJson(JSONObject jsonObject) {
+        JSONObject ports = jsonObject.getJSONObject("ports");
+        return new NodeConfiguration(
+                jsonObject.getString("name"),
+                jsonObject.optString("host", null),
+                jsonObject.getString("basePath"),
+                ports.getInt("start"),
+                ports.optInt("end", 65535),
+                jsonObject.optLong("memory", -1),
+                jsonObject.optDouble("cpus", -1));
+    }
+
+    public boolean isRemote() {
+        return this.dockerHost != null && !this.dockerHost.startsWith("unix://")
+                && !this.dockerHost.startsWith("npipe://");
+    }
+
+    public String address() {
+        if (this.dockerHost == null || !this.dockerHost.startsWith("tcp://")) {
+            return "127.0.0.1";
+        }
+        return URI.create(this.dockerHost).getHost();
+    }
+}
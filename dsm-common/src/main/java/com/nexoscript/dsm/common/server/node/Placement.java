@@ -0,0 +1,42 @@
+package com.nexoscript.dsm.common.server.node;
+
+import java.util.Comparator;
+import java.util.List;
+
+public enum Placement implements PlacementStrategy {
+    LEAST_LOADED {
+        @Override
+        public ServerNode place(List<ServerNode> nodes, int memory) {
+            return fitting(nodes, memory).stream()
+                    .min(Comparator.comparingDouble(ServerNode::getMemoryUtilization))
+                    .orElseGet(() -> fallback(nodes));
+        }
+    },
+    BIN_PACKING {
+        @Override
+        public ServerNode place(List<ServerNode> nodes, int memory) {
+            return fitting(nodes, memory).stream()
+                    .max(Comparator.comparingDouble(ServerNode::getMemoryUtilization))
+                    .orElseGet(() -> fallback(nodes));
+        }
+    },
+    SPREAD {
+        @Override
+        public ServerNode place(List<ServerNode> nodes, int memory) {
+            return fitting(nodes, memory).stream()
+                    .min(Comparator.comparingInt(ServerNode::getServerCount))
+                    .orElseGet(() -> fallback(nodes));
+        }
+    };
+
+    private static List<ServerNode> fitting(List<ServerNode> nodes, int memory) {
+        return nodes.stream().filter(node -> node.getAdmission().fits(memory)).toList();
+    }
+
+    private static ServerNode fallback(List<ServerNode> nodes) {
+        return nodes.stream()
+                .min(Comparator.comparingInt((ServerNode node) -> node.getAdmission().getMetrics().queued())
+                        .thenComparingDouble(ServerNode::getMemoryUtilization))
+                .orElseThrow(() -> new IllegalStateException("No node available"));
+    }
+}
@@ -0,0 +1,7 @@
+package com.nexoscript.dsm.common.server.node;
+
+import java.util.List;
+
+public interface PlacementStrategy {
+    ServerNode place(List<ServerNode> nodes, int memory);
+}
@@ -0,0 +1,202 @@
+package com.nexoscript.dsm.common.server.node;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.transport.DockerHttpClient;
+import com.nexoscript.dsm.common.server.admission.AdmissionController;
+import com.nexoscript.dsm.common.server.container.ServerContainer;
+import com.nexoscript.dsm.common.server.health.HealthProber;
+import com.nexoscript.dsm.common.server.image.ImageManager;
+import com.nexoscript.dsm.common.server.log.ContainerLogManager;
+import com.nexoscript.dsm.common.server.metadata.ServerMetadata;
+import com.nexoscript.dsm.common.server.metadata.ServerMetadataStore;
+import com.nexoscript.dsm.common.server.metrics.ContainerStatsCollector;
+import com.nexoscript.dsm.common.server.port.PortAllocator;
+import com.nexoscript.dsm.common.server.provisioning.ServerProvisioner;
+import com.nexoscript.dsm.common.server.recovery.ServerRecovery;
+import com.nexoscript.dsm.common.server.registry.ContainerRegistry;
+import com.nexoscript.dsm.common.server.registry.ContainerSnapshotCache;
+import com.nexoscript.dsm.common.server.scheduler.ServerScheduler;
+import com.nexoscript.dsm.common.server.template.TemplateStore;
+import com.nexoscript.dsm.common.server.transport.DockerTransport;
+import com.nexoscript.dsm.common.server.transport.TransportMetrics;
+
+public class ServerNode {
+    private final NodeConfiguration configuration;
+    private final DockerClient dockerClient;
+    private final DockerHttpClient httpClient;
+    private final PortAllocator portAllocator;
+    private final AdmissionController admission;
+    private final ServerMetadataStore metadataStore;
+    private final ContainerSnapshotCache snapshotCache;
+    private final ContainerRegistry registry;
+    private final ContainerLogManager logManager;
+    private final ContainerStatsCollector statsCollector;
+    private final HealthProber healthProber;
+    private final ImageManager imageManager;
+    private final ServerProvisioner provisioner;
+    private final ServerRecovery recovery;
+
+    public ServerNode(String prefix, NodeConfiguration configuration, DockerClient dockerClient,
+                      DockerHttpClient httpClient, PortAllocator portAllocator, AdmissionController admission,
+                      ServerMetadataStore metadataStore, ServerScheduler scheduler, TemplateStore templates,
+                      Map<String, String> platformImages, long imageDiskBudget, Duration snapshotTtl) {
+        this.configuration = configuration;
+        this.dockerClient = dockerClient;
+        this.httpClient = httpClient;
+        this.portAllocator = portAllocator;
+        this.admission = admission;
+        this.metadataStore = metadataStore;
+        this.snapshotCache = new ContainerSnapshotCache(prefix, dockerClient, snapshotTtl);
+        this.registry = new ContainerRegistry(prefix, configuration.name(), dockerClient, configuration.basePath(),
+                portAllocator, this.snapshotCache);
+        this.logManager = new ContainerLogManager(dockerClient, scheduler, 256 * 1024, 1000,
+                Duration.ofMinutes(5));
+        this.registry.addListener(this.logManager);
+        this.registry.addListener(this.admission);
+        this.registry.addListener(this::commitStarted);
+        this.statsCollector = new ContainerStatsCollector(httpClient, this.registry, scheduler, Duration.ofSeconds(5),
+                12);
+        this.registry.addListener(this.statsCollector);
+        this.healthProber = new HealthProber(this.registry, scheduler, configuration.address(),
+                Duration.ofSeconds(5), Duration.ofSeconds(3), Duration.ofSeconds(1));
+        this.registry.addListener(this.healthProber);
+        this.imageManager = new ImageManager(dockerClient, platformImages, imageDiskBudget);
+        this.provisioner = new ServerProvisioner(prefix, dockerClient, configuration.basePath(), portAllocator,
+                this.imageManager, metadataStore, this.registry, this.logManager, templates, admission, 4);
+        this.recovery = new ServerRecovery(prefix, configuration.basePath(), this.registry, 8);
+    }
+
+    public void mapping() {
+        this.registry.seed();
+        for (ServerContainer container : this.registry.getAll()) {
+            ServerMetadata metadata = this.metadataStore.load(container.getContainerName(),
+                    Path.of(container.getServerPath()));
+            if (metadata != null) {
+                boolean unbound = container.getPort() <= 0;
+                container.applyMetadata(metadata);
+                if (unbound && container.getPort() > 0) {
+                    this.portAllocator.reserve(container.getPort(), container.getContainerName());
+                }
+            }
+            if (this.registry.isRunning(container.getContainerName())) {
+                this.admission.commit(container.getContainerName(), container.getContainerId(),
+                        container.getMemory());
+            }
+        }
+    }
+
+    private void commitStarted(String action, String containerName, String containerId) {
+        if (!action.equals("start") || this.admission.isCommitted(containerName)) {
+            return;
+        }
+        ServerContainer container = this.registry.get(containerName);
+        if (container != null) {
+            this.admission.commit(containerName, containerId, container.getMemory());
+        }
+    }
+
+    public void start() {
+        this.imageManager.prePull();
+        this.registry.listen();
+        this.statsCollector.start();
+        try {
+            this.healthProber.start();
+        } catch (IOException e) {
+            System.err.println("Error while starting health prober of node " + this.getName() + ": "
+                    + e.getMessage());
+        }
+    }
+
+    public void remove(ServerContainer container) {
+        this.registry.unregister(container.getContainerName());
+        this.admission.release(container.getContainerName());
+        this.logManager.remove(container.getContainerId());
+    }
+
+    public String getName() {
+        return this.configuration.name();
+    }
+
+    public NodeConfiguration getConfiguration() {
+        return this.configuration;
+    }
+
+    public int getServerCount() {
+        return this.registry.size();
+    }
+
+    public double getMemoryUtilization() {
+        return this.admission.getMetrics().memoryUtilization();
+    }
+
+    public List<TransportMetrics> getTransportMetrics() {
+        if (this.httpClient instanceof DockerTransport transport) {
+            return transport.getMetrics();
+        }
+        return List.of();
+    }
+
+    public DockerClient getDockerClient() {
+        return this.dockerClient;
+    }
+
+    public PortAllocator getPortAllocator() {
+        return this.portAllocator;
+    }
+
+    public AdmissionController getAdmission() {
+        return this.admission;
+    }
+
+    public ContainerSnapshotCache getSnapshotCache() {
+        return this.snapshotCache;
+    }
+
+    public ContainerRegistry getRegistry() {
+        return this.registry;
+    }
+
+    public ContainerLogManager getLogManager() {
+        return this.logManager;
+    }
+
+    public ContainerStatsCollector getStatsCollector() {
+        return this.statsCollector;
+    }
+
+    public HealthProber getHealthProber() {
+        return this.healthProber;
+    }
+
+    public ImageManager getImageManager() {
+        return this.imageManager;
+    }
+
+    public ServerProvisioner getProvisioner() {
+        return this.provisioner;
+    }
+
+    public ServerRecovery getRecovery() {
+        return this.recovery;
+    }
+
+    public void close() {
+        this.provisioner.shutdown();
+        this.statsCollector.shutdown();
+        this.healthProber.shutdown();
+        this.imageManager.shutdown();
+        this.logManager.close();
+        this.registry.close();
+        try {
+            this.dockerClient.close();
+        } catch (IOException e) {
+            System.err.println("Error while closing docker client of node " + this.getName() + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.nexoscript.dsm.common.server.pool;
+
+import java.time.Duration;
+
+public record PoolMetrics(PoolProfile profile, int targetSize, int readySize, int refilling, long hits, long misses,
+                          long refills, long failedRefills, Duration averageRefillLatency,
+                          Duration maxRefillLatency) {
+    public double hitRate() {
+        long requests = this.hits + this.misses;
+        return requests == 0 ? 0 : (double) this.hits / requests;
+    }
+}
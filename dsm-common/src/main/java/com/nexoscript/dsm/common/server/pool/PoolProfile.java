@@ -0,0 +1,13 @@
+package com.nexoscript.dsm.common.server.pool;
+
+public record PoolProfile(String platform, String version, int memory) {
+    public PoolProfile {
+        platform = platform.toLowerCase();
+        version = version.toLowerCase();
+    }
+
+    @Override
+    public String toString() {
+        return this.platform + "/" + this.version + "/" + this.memory + "M";
+    }
+}
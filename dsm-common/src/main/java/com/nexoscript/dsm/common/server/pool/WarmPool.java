@@ -0,0 +1,180 @@
+package com.nexoscript.dsm.common.server.pool;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import com.nexoscript.dsm.common.server.container.ServerContainer;
+import com.nexoscript.dsm.common.server.registry.ContainerEventListener;
+
+public class WarmPool implements ContainerEventListener {
+    private final Function<PoolProfile, CompletableFuture<ServerContainer>> factory;
+    private final Consumer<ServerContainer> retirer;
+    private final Map<PoolProfile, ProfilePool> pools;
+    private volatile boolean running;
+
+    public WarmPool(Function<PoolProfile, CompletableFuture<ServerContainer>> factory,
+                    Consumer<ServerContainer> retirer) {
+        this.factory = factory;
+        this.retirer = retirer;
+        this.pools = new ConcurrentHashMap<>();
+    }
+
+    public void start() {
+        this.running = true;
+        this.pools.values().forEach(this::refill);
+    }
+
+    public void stop() {
+        this.running = false;
+    }
+
+    public void setSize(PoolProfile profile, int size) {
+        ProfilePool pool = this.pools.computeIfAbsent(profile, ProfilePool::new);
+        pool.targetSize = Math.max(0, size);
+        this.trim(pool);
+        this.refill(pool);
+    }
+
+    public void adopt(PoolProfile profile, ServerContainer container) {
+        ProfilePool pool = this.pools.computeIfAbsent(profile, ProfilePool::new);
+        if (pool.ready.stream().anyMatch(ready -> ready.getContainerName().equals(container.getContainerName()))) {
+            return;
+        }
+        pool.ready.addLast(container);
+        pool.targetSize = Math.max(pool.targetSize, pool.ready.size());
+    }
+
+    public ServerContainer claim(PoolProfile profile) {
+        ProfilePool pool = this.pools.get(profile);
+        if (pool == null || pool.targetSize == 0) {
+            return null;
+        }
+        ServerContainer container = pool.ready.pollFirst();
+        if (container == null) {
+            pool.misses.incrementAndGet();
+        } else {
+            pool.hits.incrementAndGet();
+        }
+        this.refill(pool);
+        return container;
+    }
+
+    public List<PoolMetrics> getMetrics() {
+        List<PoolMetrics> metrics = new ArrayList<>();
+        for (ProfilePool pool : this.pools.values()) {
+            long refills = pool.refills.get();
+            metrics.add(new PoolMetrics(pool.profile, pool.targetSize, pool.ready.size(), pool.refilling.get(),
+                    pool.hits.get(), pool.misses.get(), refills, pool.failedRefills.get(),
+                    Duration.ofNanos(refills == 0 ? 0 : pool.refillNanos.get() / refills),
+                    Duration.ofNanos(pool.maxRefillNanos.get())));
+        }
+        return metrics;
+    }
+
+    @Override
+    public void onContainerEvent(String action, String containerName, String containerId) {
+        if (!action.equals("destroy")) {
+            return;
+        }
+        for (ProfilePool pool : this.pools.values()) {
+            if (pool.ready.removeIf(container -> containerId.equals(container.getContainerId()))) {
+                this.refill(pool);
+            }
+        }
+    }
+
+    private void trim(ProfilePool pool) {
+        while (pool.ready.size() > pool.targetSize) {
+            ServerContainer container = pool.ready.pollLast();
+            if (container == null) {
+                return;
+            }
+            this.retire(pool, container);
+        }
+    }
+
+    private void retire(ProfilePool pool, ServerContainer container) {
+        try {
+            this.retirer.accept(container);
+        } catch (RuntimeException e) {
+            System.err.println("Error while retiring " + container.getContainerName() + " from pool " + pool.profile
+                    + ": " + e.getMessage());
+        }
+    }
+
+    private void refill(ProfilePool pool) {
+        if (!this.running) {
+            return;
+        }
+        while (true) {
+            int refilling = pool.refilling.get();
+            if (pool.ready.size() + refilling >= pool.targetSize) {
+                return;
+            }
+            if (!pool.refilling.compareAndSet(refilling, refilling + 1)) {
+                continue;
+            }
+            long started = System.nanoTime();
+            CompletableFuture<ServerContainer> future;
+            try {
+                future = this.factory.apply(pool.profile);
+            } catch (RuntimeException e) {
+                pool.refilling.decrementAndGet();
+                pool.failedRefills.incrementAndGet();
+                return;
+            }
+            future.whenComplete((container, throwable) -> {
+                pool.refilling.decrementAndGet();
+                if (throwable != null) {
+                    pool.failedRefills.incrementAndGet();
+                    System.err.println("Error while refilling pool " + pool.profile + ": " + throwable.getMessage());
+                    return;
+                }
+                long latency = System.nanoTime() - started;
+                pool.refills.incrementAndGet();
+                pool.refillNanos.addAndGet(latency);
+                pool.maxRefillNanos.accumulateAndGet(latency, Math::max);
+                if (pool.ready.size() >= pool.targetSize) {
+                    this.retire(pool, container);
+                    return;
+                }
+                pool.ready.addLast(container);
+            });
+        }
+    }
+
+    private static final class ProfilePool {
+        private final PoolProfile profile;
+        private final Deque<ServerContainer> ready;
+        private final AtomicInteger refilling;
+        private final AtomicLong hits;
+        private final AtomicLong misses;
+        private final AtomicLong refills;
+        private final AtomicLong failedRefills;
+        private final AtomicLong refillNanos;
+        private final AtomicLong maxRefillNanos;
+        private volatile int targetSize;
+
+        private ProfilePool(PoolProfile profile) {
+            this.profile = profile;
+            this.ready = new ConcurrentLinkedDeque<>();
+            this.refilling = new AtomicInteger();
+            this.hits = new AtomicLong();
+            this.misses = new AtomicLong();
+            this.refills = new AtomicLong();
+            this.failedRefills = new AtomicLong();
+            this.refillNanos = new AtomicLong();
+            this.maxRefillNanos = new AtomicLong();
+        }
+    }
+}
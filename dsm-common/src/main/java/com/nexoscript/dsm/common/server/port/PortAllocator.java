@@ -0,0 +1,109 @@
+package com.nexoscript.dsm.common.server.port;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+public class PortAllocator {
+    private static final int MAX_PORT = 65535;
+
+    private final int startPort;
+    private final int endPort;
+    private final BitSet leasedPorts;
+    private final Map<Integer, String> owners;
+    private int nextCandidate;
+
+    public PortAllocator(int startPort) {
+        this(startPort, MAX_PORT);
+    }
+
+    public PortAllocator(int startPort, int endPort) {
+        if (startPort < 1 || endPort > MAX_PORT || startPort > endPort) {
+            throw new IllegalArgumentException("Invalid port range " + startPort + "-" + endPort);
+        }
+        this.startPort = startPort;
+        this.endPort = endPort;
+        this.leasedPorts = new BitSet(endPort - startPort + 1);
+        this.owners = new HashMap<>();
+        this.nextCandidate = 0;
+    }
+
+    public synchronized int allocate() {
+        int size = this.endPort - this.startPort + 1;
+        int index = this.leasedPorts.nextClearBit(this.nextCandidate);
+        if (index >= size) {
+            index = this.leasedPorts.nextClearBit(0);
+            if (index >= size) {
+                throw new IllegalStateException("No free port left in range " + this.startPort + "-" + this.endPort);
+            }
+        }
+        this.leasedPorts.set(index);
+        this.nextCandidate = index + 1;
+        return this.startPort + index;
+    }
+
+    public synchronized int allocate(String owner) {
+        int port = this.allocate();
+        this.owners.put(port, owner);
+        return port;
+    }
+
+    public synchronized boolean reserve(int port, String owner) {
+        if (this.isLeased(port)) {
+            return owner.equals(this.owners.get(port));
+        }
+        if (!this.reserve(port)) {
+            return false;
+        }
+        this.owners.put(port, owner);
+        return true;
+    }
+
+    public synchronized void release(int port, String owner) {
+        String current = this.owners.get(port);
+        if (current != null && !current.equals(owner)) {
+            return;
+        }
+        this.release(port);
+    }
+
+    public synchronized boolean reserve(int port) {
+        if (!this.inRange(port) || this.leasedPorts.get(port - this.startPort)) {
+            return false;
+        }
+        this.leasedPorts.set(port - this.startPort);
+        return true;
+    }
+
+    public synchronized void release(int port) {
+        if (!this.inRange(port)) {
+            return;
+        }
+        int index = port - this.startPort;
+        this.leasedPorts.clear(index);
+        this.owners.remove(port);
+        if (index < this.nextCandidate) {
+            this.nextCandidate = index;
+        }
+    }
+
+    public synchronized boolean isLeased(int port) {
+        return this.inRange(port) && this.leasedPorts.get(port - this.startPort);
+    }
+
+    public synchronized int getLeasedCount() {
+        return this.leasedPorts.cardinality();
+    }
+
+    public int getStartPort() {
+        return this.startPort;
+    }
+
+    public int getEndPort() {
+        return this.endPort;
+    }
+
+    private boolean inRange(int port) {
+        return port >= this.startPort && port <= this.endPort;
+    }
+}
@@ -0,0 +1,12 @@
+package com.nexoscript.dsm.common.server.provisioning;
+
+import java.time.Duration;
+
+import com.nexoscript.dsm.common.server.container.ServerContainer;
+
+public interface ProvisioningListener {
+    ProvisioningListener NONE = (container, stage, elapsed, error) -> {
+    };
+
+    void onProgress(ServerContainer container, ProvisioningStage stage, Duration elapsed, Throwable error);
+}
@@ -0,0 +1,11 @@
+package com.nexoscript.dsm.common.server.provisioning;
+
+public enum ProvisioningStage {
+    ALLOCATED,
+    PREPARED,
+    CREATED,
+    PERSISTED,
+    STARTED,
+    READY,
+    FAILED;
+}
@@ -0,0 +1,227 @@
+package com.nexoscript.dsm.common.server.provisioning;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import com.github.dockerjava.api.DockerClient;
+import com.nexoscript.dsm.common.server.admission.AdmissionController;
+import com.nexoscript.dsm.common.server.configuration.ServerConfiguration;
+import com.nexoscript.dsm.common.server.container.ServerContainer;
+import com.nexoscript.dsm.common.server.image.ImageManager;
+import com.nexoscript.dsm.common.server.log.ContainerLogManager;
+import com.nexoscript.dsm.common.server.metadata.ServerMetadata;
+import com.nexoscript.dsm.common.server.metadata.ServerMetadataStore;
+import com.nexoscript.dsm.common.server.port.PortAllocator;
+import com.nexoscript.dsm.common.server.registry.ContainerRegistry;
+import com.nexoscript.dsm.common.server.template.TemplateStore;
+
+public class ServerProvisioner {
+    private final String prefix;
+    private final DockerClient dockerClient;
+    private final String basePath;
+    private final PortAllocator portAllocator;
+    private final ImageManager imageManager;
+    private final ServerMetadataStore metadataStore;
+    private final ContainerRegistry registry;
+    private final ContainerLogManager logManager;
+    private final TemplateStore templates;
+    private final AdmissionController admission;
+    private final ExecutorService executor;
+
+    public ServerProvisioner(String prefix, DockerClient dockerClient, String basePath, PortAllocator portAllocator,
+                             ImageManager imageManager, ServerMetadataStore metadataStore, ContainerRegistry registry,
+                             ContainerLogManager logManager, TemplateStore templates, AdmissionController admission,
+                             int concurrency) {
+        this.prefix = prefix;
+        this.dockerClient = dockerClient;
+        this.basePath = basePath;
+        this.portAllocator = portAllocator;
+        this.imageManager = imageManager;
+        this.metadataStore = metadataStore;
+        this.registry = registry;
+        this.logManager = logManager;
+        this.templates = templates;
+        this.admission = admission;
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "dsm-provisioner-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public CompletableFuture<ServerContainer> provision(String platform, String version, UUID uniqueId, int memory,
+                                                       String[] environmentVariables, ProvisioningListener listener) {
+        return this.provision(platform, version, uniqueId, memory, environmentVariables, null, listener);
+    }
+
+    public CompletableFuture<ServerContainer> provision(String platform, String version, UUID uniqueId, int memory,
+                                                       String[] environmentVariables, String template,
+                                                       ProvisioningListener listener) {
+        return this.provision(platform, version, uniqueId, -1, memory, environmentVariables, null, template,
+                listener);
+    }
+
+    public CompletableFuture<ServerContainer> provision(ServerConfiguration configuration, UUID uniqueId, int port,
+                                                       ProvisioningListener listener) {
+        return this.provision(configuration.getPlatform(), configuration.getVersion(), uniqueId, port,
+                configuration.getMemory(), configuration.getEnvironmentVariables(), configuration.getName(),
+                configuration.getTemplate(), listener);
+    }
+
+    public CompletableFuture<ServerContainer> provision(ServerMetadata metadata, UUID uniqueId,
+                                                       ProvisioningListener listener) {
+        return this.provision(metadata.platform(), metadata.version(), uniqueId, metadata.port(), metadata.memory(),
+                metadata.environmentVariables(), metadata.configuration(), null, listener);
+    }
+
+    private CompletableFuture<ServerContainer> provision(String platform, String version, UUID uniqueId, int port,
+                                                        int memory, String[] environmentVariables,
+                                                        String configuration, String template,
+                                                        ProvisioningListener listener) {
+        long started = System.nanoTime();
+        String containerName = this.prefix + "-" + uniqueId;
+        AtomicInteger leasedPort = new AtomicInteger(-1);
+        AtomicReference<ServerContainer> created = new AtomicReference<>();
+        Path directory = Path.of(this.basePath, uniqueId.toString());
+        boolean existingDirectory = Files.exists(directory);
+        CompletableFuture<String> image = this.imageManager.ensureForPlatform(platform);
+        return this.admission.admit(containerName, memory)
+                .thenApplyAsync(admitted -> {
+                    leasedPort.set(this.leasePort(port, containerName));
+                    ServerContainer container = new ServerContainer(this.prefix, this.dockerClient, this.basePath,
+                            platform, version, leasedPort.get(), memory, environmentVariables);
+                    container.setConfiguration(configuration);
+                    container.setResourceLimits(this.admission.containerMemory(memory) * 1024 * 1024,
+                            (long) (this.admission.getCpuCap() * 1_000_000_000L));
+                    created.set(container);
+                    return report(container, ProvisioningStage.ALLOCATED, started, listener);
+                }, this.executor)
+                .thenApplyAsync(stage(started, listener, ProvisioningStage.PREPARED, container -> {
+                    container.prepareDirectory(uniqueId);
+                    this.seed(container, template);
+                }), this.executor)
+                .thenCombineAsync(image, (container, imageName) -> {
+                    container.setImage(imageName);
+                    return container;
+                }, this.executor)
+                .thenApplyAsync(stage(started, listener, ProvisioningStage.CREATED, container -> {
+                    container.createContainer();
+                    this.admission.bind(containerName, container.getContainerId());
+                }), this.executor)
+                .thenApplyAsync(stage(started, listener, ProvisioningStage.PERSISTED,
+                        container -> this.metadataStore.write(container.toMetadata())), this.executor)
+                .thenApplyAsync(stage(started, listener, ProvisioningStage.STARTED,
+                        ServerContainer::startContainer), this.executor)
+                .thenApplyAsync(stage(started, listener, ProvisioningStage.READY, container -> {
+                    this.registry.register(container.getContainerName(), container);
+                    this.logManager.follow(container.getContainerId());
+                }), this.executor)
+                .whenComplete((container, error) -> {
+                    if (error == null) {
+                        return;
+                    }
+                    this.cleanUp(created.get(), containerName, existingDirectory ? null : directory);
+                    if (leasedPort.get() > 0) {
+                        this.portAllocator.release(leasedPort.get(), containerName);
+                    }
+                    this.admission.release(containerName);
+                });
+    }
+
+    private void seed(ServerContainer container, String template) {
+        try {
+            this.templates.seed(Path.of(container.getServerPath()), template, container.getPlatform(),
+                    container.getVersion());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error while seeding " + container.getServerPath(), e);
+        }
+    }
+
+    private void cleanUp(ServerContainer container, String containerName, Path directory) {
+        if (container != null && container.getContainerId() != null) {
+            try {
+                container.removeContainer();
+            } catch (RuntimeException e) {
+                System.err.println("Error while removing failed container " + containerName + ": " + e.getMessage());
+            }
+            this.logManager.remove(container.getContainerId());
+            ServerContainer registered = this.registry.get(containerName);
+            if (registered != null && container.getContainerId().equals(registered.getContainerId())) {
+                this.registry.unregister(containerName);
+            }
+        }
+        if (directory != null) {
+            this.deleteDirectory(containerName, directory);
+        }
+    }
+
+    public void deleteDirectory(ServerContainer container) {
+        this.deleteDirectory(container.getContainerName(), Path.of(this.basePath, container.getUniqueId().toString()));
+    }
+
+    private void deleteDirectory(String containerName, Path directory) {
+        this.metadataStore.evict(containerName);
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        } catch (IOException e) {
+            System.err.println("Error while deleting directory of container " + containerName + ": "
+                    + e.getMessage());
+        }
+    }
+
+    private int leasePort(int port, String containerName) {
+        if (port <= 0) {
+            return this.portAllocator.allocate(containerName);
+        }
+        if (port >= this.portAllocator.getStartPort() && port <= this.portAllocator.getEndPort()
+                && !this.portAllocator.reserve(port, containerName)) {
+            throw new IllegalStateException("Port " + port + " is already leased");
+        }
+        return port;
+    }
+
+    private Function<ServerContainer, ServerContainer> stage(long started, ProvisioningListener listener,
+                                                             ProvisioningStage stage,
+                                                             Consumer<ServerContainer> action) {
+        return container -> {
+            try {
+                action.accept(container);
+            } catch (RuntimeException e) {
+                listener.onProgress(container, ProvisioningStage.FAILED,
+                        Duration.ofNanos(System.nanoTime() - started), e);
+                throw new CompletionException(e);
+            }
+            return report(container, stage, started, listener);
+        };
+    }
+
+    private static ServerContainer report(ServerContainer container, ProvisioningStage stage, long started,
+                                          ProvisioningListener listener) {
+        listener.onProgress(container, stage, Duration.ofNanos(System.nanoTime() - started), null);
+        return container;
+    }
+
+    public void shutdown() {
+        this.executor.shutdown();
+    }
+}
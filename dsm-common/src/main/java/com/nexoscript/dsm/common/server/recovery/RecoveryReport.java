@@ -0,0 +1,12 @@
+package com.nexoscript.dsm.common.server.recovery;
+
+import java.time.Duration;
+import java.util.List;
+
+public record RecoveryReport(int scanned, int present, int recovered, List<String> failures, Duration scanDuration,
+                             Duration duration) {
+
+    public boolean isSuccessful() {
+        return this.failures.isEmpty();
+    }
+}
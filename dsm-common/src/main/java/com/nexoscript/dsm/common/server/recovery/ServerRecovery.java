@@ -0,0 +1,115 @@
+package com.nexoscript.dsm.common.server.recovery;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.stream.Stream;
+
+import com.nexoscript.dsm.common.server.container.ServerContainer;
+import com.nexoscript.dsm.common.server.metadata.ServerMetadata;
+import com.nexoscript.dsm.common.server.metadata.ServerMetadataStore;
+import com.nexoscript.dsm.common.server.registry.ContainerRegistry;
+
+public class ServerRecovery {
+    private final String prefix;
+    private final String basePath;
+    private final ContainerRegistry registry;
+    private final int scanThreads;
+
+    public ServerRecovery(String prefix, String basePath, ContainerRegistry registry, int scanThreads) {
+        this.prefix = prefix;
+        this.basePath = basePath;
+        this.registry = registry;
+        this.scanThreads = scanThreads;
+    }
+
+    public RecoveryReport recover(BiFunction<ServerMetadata, UUID, CompletableFuture<ServerContainer>> provisioner) {
+        long started = System.nanoTime();
+        List<Path> directories = this.serverDirectories();
+        AtomicInteger threadCounter = new AtomicInteger();
+        ExecutorService scanner = Executors.newFixedThreadPool(this.scanThreads, runnable -> {
+            Thread thread = new Thread(runnable, "dsm-recovery-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger scanned = new AtomicInteger();
+        AtomicInteger present = new AtomicInteger();
+        AtomicInteger recovered = new AtomicInteger();
+        AtomicLong scanFinished = new AtomicLong(started);
+        Queue<String> failures = new ConcurrentLinkedQueue<>();
+        try {
+            List<CompletableFuture<Void>> recoveries = new ArrayList<>(directories.size());
+            for (Path directory : directories) {
+                UUID uniqueId = UUID.fromString(directory.getFileName().toString());
+                String containerName = this.prefix + "-" + uniqueId;
+                recoveries.add(CompletableFuture.supplyAsync(() -> {
+                            ServerMetadata metadata = ServerMetadataStore.read(directory.resolve("server"));
+                            scanned.incrementAndGet();
+                            scanFinished.accumulateAndGet(System.nanoTime(), Math::max);
+                            return metadata;
+                        }, scanner)
+                        .thenCompose(metadata -> {
+                            if (metadata == null || metadata.platform() == null || metadata.version() == null) {
+                                failures.add(containerName + ": no usable " + ServerMetadataStore.FILE_NAME);
+                                return CompletableFuture.completedFuture(null);
+                            }
+                            if (metadata.removed()) {
+                                return CompletableFuture.completedFuture(null);
+                            }
+                            if (this.registry.contains(containerName)) {
+                                present.incrementAndGet();
+                                return CompletableFuture.completedFuture(null);
+                            }
+                            return provisioner.apply(metadata, uniqueId)
+                                    .handle((container, error) -> {
+                                        if (error != null) {
+                                            Throwable cause = error.getCause() != null ? error.getCause() : error;
+                                            failures.add(containerName + ": " + cause.getMessage());
+                                        } else {
+                                            recovered.incrementAndGet();
+                                        }
+                                        return null;
+                                    });
+                        }));
+            }
+            CompletableFuture.allOf(recoveries.toArray(CompletableFuture[]::new)).join();
+        } finally {
+            scanner.shutdown();
+        }
+        return new RecoveryReport(scanned.get(), present.get(), recovered.get(), List.copyOf(failures),
+                Duration.ofNanos(scanFinished.get() - started), Duration.ofNanos(System.nanoTime() - started));
+    }
+
+    private List<Path> serverDirectories() {
+        try (Stream<Path> entries = Files.list(Path.of(this.basePath))) {
+            return entries.filter(Files::isDirectory)
+                    .filter(directory -> this.isUniqueId(directory.getFileName().toString()))
+                    .toList();
+        } catch (NoSuchFileException e) {
+            return List.of();
+        } catch (IOException e) {
+            throw new IllegalStateException("Error while scanning " + this.basePath + ": " + e.getMessage(), e);
+        }
+    }
+
+    private boolean isUniqueId(String name) {
+        try {
+            return UUID.fromString(name).toString().equalsIgnoreCase(name);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,5 @@
+package com.nexoscript.dsm.common.server.registry;
+
+public interface ContainerEventListener {
+    void onContainerEvent(String action, String containerName, String containerId);
+}
@@ -0,0 +1,294 @@
+package com.nexoscript.dsm.common.server.registry;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.async.ResultCallback;
+import com.github.dockerjava.api.exception.NotFoundException;
+import com.github.dockerjava.api.model.Container;
+import com.github.dockerjava.api.model.ContainerPort;
+import com.github.dockerjava.api.model.Event;
+import com.github.dockerjava.api.model.EventType;
+import com.github.dockerjava.api.model.ExposedPort;
+import com.github.dockerjava.api.model.Ports;
+import com.nexoscript.dsm.common.server.container.ServerContainer;
+import com.nexoscript.dsm.common.server.port.PortAllocator;
+
+public class ContainerRegistry {
+    private static final int SERVER_PORT = 25565;
+
+    private final String prefix;
+    private final String node;
+    private final DockerClient dockerClient;
+    private final String basePath;
+    private final PortAllocator portAllocator;
+    private final ContainerSnapshotCache snapshotCache;
+    private final Map<String, ServerContainer> serverContainers;
+    private final Map<String, String> containerNames;
+    private final Set<String> runningContainers;
+    private final List<ContainerEventListener> listeners;
+    private Closeable eventStream;
+    private volatile long seededAt;
+    private volatile boolean closed;
+
+    public ContainerRegistry(String prefix, String node, DockerClient dockerClient, String basePath,
+                             PortAllocator portAllocator, ContainerSnapshotCache snapshotCache) {
+        this.prefix = prefix;
+        this.node = node;
+        this.dockerClient = dockerClient;
+        this.basePath = basePath;
+        this.portAllocator = portAllocator;
+        this.snapshotCache = snapshotCache;
+        this.serverContainers = new ConcurrentHashMap<>();
+        this.containerNames = new ConcurrentHashMap<>();
+        this.runningContainers = ConcurrentHashMap.newKeySet();
+        this.listeners = new CopyOnWriteArrayList<>();
+    }
+
+    public void addListener(ContainerEventListener listener) {
+        this.listeners.add(listener);
+    }
+
+    public synchronized void seed() {
+        this.seededAt = Instant.now().getEpochSecond();
+        this.snapshotCache.refresh();
+        List<Container> containers = this.snapshotCache.getManagedContainers();
+        Map<String, ServerContainer> seeded = new HashMap<>();
+        Map<String, String> containerNames = new HashMap<>();
+        Set<String> runningContainers = new HashSet<>();
+        for (Container container : containers) {
+            String containerName = this.managedName(container.getNames());
+            if (containerName == null) {
+                continue;
+            }
+            ServerContainer current = this.serverContainers.get(containerName);
+            if (current != null && container.getId().equals(current.getContainerId())) {
+                seeded.put(containerName, current);
+            } else {
+                int port = this.publishedPort(container.getPorts());
+                if (port <= 0) {
+                    port = this.inspectPort(container.getId());
+                }
+                seeded.put(containerName, this.newHandle(containerName, container.getId(), port));
+                this.portAllocator.reserve(port, containerName);
+            }
+            containerNames.put(container.getId(), containerName);
+            if ("running".equalsIgnoreCase(container.getState())) {
+                runningContainers.add(containerName);
+            }
+        }
+        for (Map.Entry<String, ServerContainer> entry : this.serverContainers.entrySet()) {
+            if (!seeded.containsKey(entry.getKey())) {
+                this.portAllocator.release(entry.getValue().getPort(), entry.getKey());
+            }
+        }
+        this.serverContainers.putAll(seeded);
+        this.serverContainers.keySet().retainAll(seeded.keySet());
+        this.containerNames.putAll(containerNames);
+        this.containerNames.keySet().retainAll(containerNames.keySet());
+        this.runningContainers.addAll(runningContainers);
+        this.runningContainers.retainAll(runningContainers);
+    }
+
+    public void listen() {
+        this.eventStream = this.dockerClient.eventsCmd()
+                .withEventTypeFilter(EventType.CONTAINER)
+                .withEventFilter("create", "start", "die", "destroy")
+                .withSince(this.seededAt > 0 ? String.valueOf(this.seededAt) : null)
+                .exec(new ResultCallback.Adapter<Event>() {
+                    @Override
+                    public void onNext(Event event) {
+                        handleEvent(event);
+                    }
+
+                    @Override
+                    public void onError(Throwable throwable) {
+                        if (closed) {
+                            return;
+                        }
+                        System.err.println("Docker event stream failed, resyncing: " + throwable.getMessage());
+                        resync();
+                    }
+
+                    @Override
+                    public void onComplete() {
+                        if (!closed) {
+                            resync();
+                        }
+                    }
+                });
+    }
+
+    private void resync() {
+        try {
+            this.seed();
+            this.listen();
+        } catch (RuntimeException e) {
+            System.err.println("Error while resyncing container registry: " + e.getMessage());
+        }
+    }
+
+    private void handleEvent(Event event) {
+        String containerId = event.getId();
+        if (containerId == null || event.getActor() == null || event.getActor().getAttributes() == null) {
+            return;
+        }
+        String containerName = event.getActor().getAttributes().get("name");
+        if (containerName == null || !containerName.startsWith(this.prefix + "-")) {
+            return;
+        }
+        this.snapshotCache.invalidate();
+        this.apply(event.getAction(), containerName, containerId);
+        for (ContainerEventListener listener : this.listeners) {
+            try {
+                listener.onContainerEvent(event.getAction(), containerName, containerId);
+            } catch (RuntimeException e) {
+                System.err.println("Error while handling " + event.getAction() + " event of " + containerName + ": "
+                        + e.getMessage());
+            }
+        }
+    }
+
+    private synchronized void apply(String action, String containerName, String containerId) {
+        switch (action) {
+            case "create" -> {
+                this.containerNames.put(containerId, containerName);
+                if (!this.serverContainers.containsKey(containerName)) {
+                    int port = this.inspectPort(containerId);
+                    this.portAllocator.reserve(port, containerName);
+                    this.serverContainers.putIfAbsent(containerName, this.newHandle(containerName, containerId, port));
+                }
+            }
+            case "start" -> this.runningContainers.add(containerName);
+            case "die" -> this.runningContainers.remove(containerName);
+            case "destroy" -> {
+                ServerContainer current = this.serverContainers.get(containerName);
+                if (current == null || current.getContainerId() == null || containerId.equals(current.getContainerId())) {
+                    this.unregister(containerName);
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    public synchronized void register(String containerName, ServerContainer container) {
+        containerName = containerName.replace("/", "");
+        container.setNode(this.node);
+        this.serverContainers.put(containerName, container);
+        if (container.getContainerId() != null) {
+            this.containerNames.put(container.getContainerId(), containerName);
+        }
+    }
+
+    public synchronized ServerContainer unregister(String containerName) {
+        ServerContainer container = this.serverContainers.remove(containerName);
+        this.runningContainers.remove(containerName);
+        this.containerNames.values().remove(containerName);
+        if (container != null) {
+            this.portAllocator.release(container.getPort(), containerName);
+        }
+        return container;
+    }
+
+    public ServerContainer get(String containerName) {
+        return this.serverContainers.get(containerName);
+    }
+
+    public boolean contains(String containerName) {
+        return this.serverContainers.containsKey(containerName);
+    }
+
+    public String getNameById(String containerId) {
+        return this.containerNames.get(containerId);
+    }
+
+    public Collection<ServerContainer> getAll() {
+        return this.serverContainers.values();
+    }
+
+    public boolean isRunning(String containerName) {
+        return this.runningContainers.contains(containerName);
+    }
+
+    public int getRunningCount() {
+        return this.runningContainers.size();
+    }
+
+    public String getNode() {
+        return this.node;
+    }
+
+    public int size() {
+        return this.serverContainers.size();
+    }
+
+    public void close() {
+        this.closed = true;
+        if (this.eventStream == null) {
+            return;
+        }
+        try {
+            this.eventStream.close();
+        } catch (IOException e) {
+            System.err.println("Error while closing docker event stream: " + e.getMessage());
+        }
+    }
+
+    private ServerContainer newHandle(String containerName, String containerId, int port) {
+        ServerContainer container = new ServerContainer(this.prefix, this.dockerClient, this.basePath, containerId,
+                containerName.substring(this.prefix.length() + 1), port);
+        container.setNode(this.node);
+        return container;
+    }
+
+    private int publishedPort(ContainerPort[] ports) {
+        if (ports == null) {
+            return -1;
+        }
+        for (ContainerPort port : ports) {
+            if (port.getPrivatePort() != null && port.getPrivatePort() == SERVER_PORT && port.getPublicPort() != null) {
+                return port.getPublicPort();
+            }
+        }
+        return -1;
+    }
+
+    private int inspectPort(String containerId) {
+        try {
+            Ports ports = this.dockerClient.inspectContainerCmd(containerId).exec().getHostConfig().getPortBindings();
+            if (ports == null) {
+                return -1;
+            }
+            Ports.Binding[] bindings = ports.getBindings().get(ExposedPort.tcp(SERVER_PORT));
+            if (bindings == null || bindings.length == 0 || bindings[0].getHostPortSpec() == null) {
+                return -1;
+            }
+            return Integer.parseInt(bindings[0].getHostPortSpec());
+        } catch (NotFoundException | NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private String managedName(String[] names) {
+        if (names == null) {
+            return null;
+        }
+        for (String name : names) {
+            if (name.startsWith("/" + this.prefix + "-")) {
+                return name.substring(1);
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,88 @@
+package com.nexoscript.dsm.common.server.registry;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.model.Container;
+
+public class ContainerSnapshotCache {
+    private final String prefix;
+    private final DockerClient dockerClient;
+    private final long ttlNanos;
+    private volatile Snapshot snapshot;
+
+    public ContainerSnapshotCache(String prefix, DockerClient dockerClient, Duration ttl) {
+        this.prefix = prefix;
+        this.dockerClient = dockerClient;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    public Container getById(String containerId) {
+        return this.current().byId.get(containerId.toLowerCase(Locale.ROOT));
+    }
+
+    public Container getByName(String containerName) {
+        return this.current().byName.get(containerName.replace("/", "").toLowerCase(Locale.ROOT));
+    }
+
+    public List<Container> getContainers() {
+        return this.current().containers;
+    }
+
+    public List<Container> getManagedContainers() {
+        return this.current().managedContainers;
+    }
+
+    public void invalidate() {
+        this.snapshot = null;
+    }
+
+    public synchronized void refresh() {
+        List<Container> containers = this.dockerClient.listContainersCmd()
+                .withShowAll(true)
+                .exec();
+        Map<String, Container> byId = new HashMap<>(containers.size() * 2);
+        Map<String, Container> byName = new HashMap<>(containers.size() * 2);
+        List<Container> managedContainers = new ArrayList<>();
+        for (Container container : containers) {
+            byId.put(container.getId().toLowerCase(Locale.ROOT), container);
+            String[] names = container.getNames();
+            if (names == null || names.length == 0) {
+                continue;
+            }
+            byName.putIfAbsent(names[0].replace("/", "").toLowerCase(Locale.ROOT), container);
+            for (String name : names) {
+                if (name.startsWith("/" + this.prefix + "-")) {
+                    managedContainers.add(container);
+                    break;
+                }
+            }
+        }
+        this.snapshot = new Snapshot(System.nanoTime(), List.copyOf(containers), List.copyOf(managedContainers),
+                byId, byName);
+    }
+
+    private Snapshot current() {
+        Snapshot current = this.snapshot;
+        if (current != null && System.nanoTime() - current.loadedAt < this.ttlNanos) {
+            return current;
+        }
+        synchronized (this) {
+            current = this.snapshot;
+            if (current == null || System.nanoTime() - current.loadedAt >= this.ttlNanos) {
+                this.refresh();
+                current = this.snapshot;
+            }
+            return current;
+        }
+    }
+
+    private record Snapshot(long loadedAt, List<Container> containers, List<Container> managedContainers,
+                            Map<String, Container> byId, Map<String, Container> byName) {
+    }
+}
@@ -0,0 +1,6 @@
+package com.nexoscript.dsm.common.server.scheduler;
+
+public record SchedulerMetrics(int poolSize, int activeThreads, int largestPoolSize, int queuedTasks,
+                               int periodicTasks, long completedTasks, long failedTasks, int serviceThreads,
+                               int liveThreads, int peakThreads, int daemonThreads) {
+}
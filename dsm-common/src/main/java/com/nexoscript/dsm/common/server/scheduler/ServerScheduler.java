@@ -0,0 +1,94 @@
+package com.nexoscript.dsm.common.server.scheduler;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.RunnableScheduledFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ServerScheduler {
+    private final ScheduledThreadPoolExecutor executor;
+    private final Set<Thread> serviceThreads;
+    private final AtomicLong failedTasks;
+
+    public ServerScheduler(int threads) {
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.executor = new ScheduledThreadPoolExecutor(threads, runnable -> {
+            Thread thread = new Thread(runnable, "dsm-scheduler-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.setRemoveOnCancelPolicy(true);
+        this.executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        this.serviceThreads = ConcurrentHashMap.newKeySet();
+        this.failedTasks = new AtomicLong();
+    }
+
+    public Future<?> execute(String task, Runnable runnable) {
+        return this.executor.submit(this.guard(task, runnable));
+    }
+
+    public ScheduledFuture<?> schedule(String task, Runnable runnable, Duration delay) {
+        return this.executor.schedule(this.guard(task, runnable), delay.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    public ScheduledFuture<?> scheduleAtFixedRate(String task, Runnable runnable, Duration initialDelay,
+                                                  Duration period) {
+        return this.executor.scheduleAtFixedRate(this.guard(task, runnable), initialDelay.toNanos(),
+                period.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    public Thread startServiceThread(String name, Runnable runnable) {
+        Thread thread = new Thread(() -> {
+            try {
+                runnable.run();
+            } finally {
+                this.serviceThreads.remove(Thread.currentThread());
+            }
+        }, name);
+        thread.setDaemon(true);
+        this.serviceThreads.add(thread);
+        thread.start();
+        return thread;
+    }
+
+    public SchedulerMetrics getMetrics() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        int queuedTasks = 0;
+        int periodicTasks = 0;
+        for (Runnable task : this.executor.getQueue()) {
+            if (task instanceof RunnableScheduledFuture<?> scheduled && scheduled.isPeriodic()) {
+                periodicTasks++;
+            } else {
+                queuedTasks++;
+            }
+        }
+        return new SchedulerMetrics(this.executor.getPoolSize(), this.executor.getActiveCount(),
+                this.executor.getLargestPoolSize(), queuedTasks, periodicTasks,
+                this.executor.getCompletedTaskCount(), this.failedTasks.get(), this.serviceThreads.size(),
+                threads.getThreadCount(), threads.getPeakThreadCount(), threads.getDaemonThreadCount());
+    }
+
+    public void shutdown() {
+        this.executor.shutdownNow();
+        this.serviceThreads.forEach(Thread::interrupt);
+    }
+
+    private Runnable guard(String task, Runnable runnable) {
+        return () -> {
+            try {
+                runnable.run();
+            } catch (RuntimeException e) {
+                this.failedTasks.incrementAndGet();
+                System.err.println("Error in scheduled task " + task + ": " + e.getMessage());
+            }
+        };
+    }
+}
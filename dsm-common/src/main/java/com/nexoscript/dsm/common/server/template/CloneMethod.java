@@ -0,0 +1,6 @@
+package com.nexoscript.dsm.common.server.template;
+
+public enum CloneMethod {
+    REFLINK,
+    COPY
+}
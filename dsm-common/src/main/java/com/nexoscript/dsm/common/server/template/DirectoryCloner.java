@@ -0,0 +1,171 @@
+package com.nexoscript.dsm.common.server.template;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileStore;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+public class DirectoryCloner {
+    private static final boolean WINDOWS = System.getProperty("os.name", "").toLowerCase(Locale.ROOT)
+            .startsWith("windows");
+
+    private final ExecutorService executor;
+    private final Map<FileStore, Boolean> reflinkSupport;
+    private final AtomicLong reflinkedFiles;
+    private final AtomicLong copiedFiles;
+    private final AtomicLong copiedBytes;
+
+    public DirectoryCloner(int concurrency) {
+        this.reflinkSupport = new ConcurrentHashMap<>();
+        this.reflinkedFiles = new AtomicLong();
+        this.copiedFiles = new AtomicLong();
+        this.copiedBytes = new AtomicLong();
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "dsm-template-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public CloneMethod cloneTree(Path source, Path target) throws IOException {
+        Files.createDirectories(target);
+        if (this.reflink(source.toAbsolutePath() + "/.", target, target)) {
+            return CloneMethod.REFLINK;
+        }
+        this.clear(target);
+        this.copyTree(source, target);
+        return CloneMethod.COPY;
+    }
+
+    public CloneMethod cloneFile(Path source, Path target) throws IOException {
+        if (this.reflink(source.toAbsolutePath().toString(), target, target.getParent())) {
+            this.reflinkedFiles.incrementAndGet();
+            return CloneMethod.REFLINK;
+        }
+        Files.deleteIfExists(target);
+        this.copy(source, target);
+        return CloneMethod.COPY;
+    }
+
+    public void delete(Path directory) throws IOException {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        this.clear(directory);
+        Files.deleteIfExists(directory);
+    }
+
+    private boolean reflink(String source, Path target, Path directory) throws IOException {
+        if (WINDOWS) {
+            return false;
+        }
+        FileStore store = Files.getFileStore(directory);
+        if (Boolean.FALSE.equals(this.reflinkSupport.get(store))) {
+            return false;
+        }
+        try {
+            Process process = new ProcessBuilder("cp", "-a", "--reflink=always", source,
+                    target.toAbsolutePath().toString())
+                    .redirectErrorStream(true)
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                    .start();
+            if (process.waitFor() == 0) {
+                this.reflinkSupport.put(store, true);
+                return true;
+            }
+        } catch (IOException e) {
+            System.err.println("Error while reflinking " + source + ": " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while reflinking " + source, e);
+        }
+        this.reflinkSupport.put(store, false);
+        return false;
+    }
+
+    private void copyTree(Path source, Path target) throws IOException {
+        List<CompletableFuture<Void>> copies = new ArrayList<>();
+        Files.walkFileTree(source, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path directory, BasicFileAttributes attributes) throws IOException {
+                Files.createDirectories(target.resolve(source.relativize(directory).toString()));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                Path destination = target.resolve(source.relativize(file).toString());
+                copies.add(CompletableFuture.runAsync(() -> {
+                    try {
+                        copy(file, destination);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }, executor));
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        try {
+            CompletableFuture.allOf(copies.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException cause) {
+                throw cause.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private void copy(Path source, Path target) throws IOException {
+        Files.copy(source, target, StandardCopyOption.COPY_ATTRIBUTES, StandardCopyOption.REPLACE_EXISTING,
+                LinkOption.NOFOLLOW_LINKS);
+        this.copiedFiles.incrementAndGet();
+        this.copiedBytes.addAndGet(Files.readAttributes(target, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS)
+                .size());
+    }
+
+    private void clear(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                if (!path.equals(directory)) {
+                    Files.deleteIfExists(path);
+                }
+            }
+        }
+    }
+
+    public long getReflinkedFiles() {
+        return this.reflinkedFiles.get();
+    }
+
+    public long getCopiedFiles() {
+        return this.copiedFiles.get();
+    }
+
+    public long getCopiedBytes() {
+        return this.copiedBytes.get();
+    }
+
+    public void shutdown() {
+        this.executor.shutdown();
+    }
+}
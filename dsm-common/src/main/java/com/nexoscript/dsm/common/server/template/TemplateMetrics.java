@@ -0,0 +1,7 @@
+package com.nexoscript.dsm.common.server.template;
+
+import java.time.Duration;
+
+public record TemplateMetrics(int templates, int cachedVersions, long clones, long reflinkClones, long reflinkedFiles,
+                              long copiedFiles, long copiedBytes, long harvested, Duration averageCloneTime) {
+}
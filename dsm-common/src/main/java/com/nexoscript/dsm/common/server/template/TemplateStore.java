@@ -0,0 +1,202 @@
+package com.nexoscript.dsm.common.server.template;
+
+import java.io.IOException;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+public class TemplateStore {
+    private static final Pattern NAME = Pattern.compile("[A-Za-z0-9][A-Za-z0-9._-]*");
+
+    private final Path templateDirectory;
+    private final Path jarDirectory;
+    private final DirectoryCloner cloner;
+    private final AtomicLong clones;
+    private final AtomicLong reflinkClones;
+    private final AtomicLong harvested;
+    private final AtomicLong cloneNanos;
+
+    public TemplateStore(Path templateDirectory, Path jarDirectory, int concurrency) {
+        this.templateDirectory = templateDirectory;
+        this.jarDirectory = jarDirectory;
+        this.cloner = new DirectoryCloner(concurrency);
+        this.clones = new AtomicLong();
+        this.reflinkClones = new AtomicLong();
+        this.harvested = new AtomicLong();
+        this.cloneNanos = new AtomicLong();
+    }
+
+    public boolean seed(Path target, String template, String platform, String version) throws IOException {
+        if (!this.isEmpty(target)) {
+            return false;
+        }
+        long started = System.nanoTime();
+        boolean seeded = false;
+        if (template != null) {
+            if (this.cloner.cloneTree(this.requireTemplate(template), target) == CloneMethod.REFLINK) {
+                this.reflinkClones.incrementAndGet();
+            }
+            seeded = true;
+        }
+        seeded |= this.linkJars(platform, version, target);
+        if (seeded) {
+            this.clones.incrementAndGet();
+            this.cloneNanos.addAndGet(System.nanoTime() - started);
+        }
+        return seeded;
+    }
+
+    public boolean harvest(String platform, String version, Path serverDirectory) throws IOException {
+        Path cache = this.jarCache(platform, version);
+        if (cache == null || Files.isDirectory(cache) || !Files.isDirectory(serverDirectory)) {
+            return false;
+        }
+        List<Path> jars = this.jars(serverDirectory);
+        if (jars.isEmpty()) {
+            return false;
+        }
+        Path staging = this.staging(cache);
+        Files.createDirectories(staging);
+        try {
+            for (Path jar : jars) {
+                Files.copy(jar, staging.resolve(jar.getFileName().toString()), StandardCopyOption.COPY_ATTRIBUTES);
+            }
+            Files.move(staging, cache, StandardCopyOption.ATOMIC_MOVE);
+            this.harvested.incrementAndGet();
+            return true;
+        } catch (FileAlreadyExistsException | DirectoryNotEmptyException e) {
+            return false;
+        } finally {
+            this.cloner.delete(staging);
+        }
+    }
+
+    public void save(String template, Path source) throws IOException {
+        Path target = this.templateDirectory.resolve(this.validate(template));
+        if (Files.exists(target)) {
+            throw new IllegalStateException("Template " + template + " already exists");
+        }
+        Path staging = this.staging(target);
+        try {
+            this.cloner.cloneTree(source, staging);
+            Files.move(staging, target, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            this.cloner.delete(staging);
+        }
+    }
+
+    public void delete(String template) throws IOException {
+        this.cloner.delete(this.requireTemplate(template));
+    }
+
+    public List<String> getTemplates() {
+        if (!Files.isDirectory(this.templateDirectory)) {
+            return List.of();
+        }
+        try (Stream<Path> entries = Files.list(this.templateDirectory)) {
+            return entries.filter(Files::isDirectory)
+                    .map(entry -> entry.getFileName().toString())
+                    .filter(name -> !name.startsWith("."))
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            System.err.println("Error while listing templates: " + e.getMessage());
+            return List.of();
+        }
+    }
+
+    public TemplateMetrics getMetrics() {
+        long clones = this.clones.get();
+        return new TemplateMetrics(this.getTemplates().size(), this.cachedVersions(), clones,
+                this.reflinkClones.get(), this.cloner.getReflinkedFiles(), this.cloner.getCopiedFiles(),
+                this.cloner.getCopiedBytes(), this.harvested.get(),
+                Duration.ofNanos(clones == 0 ? 0 : this.cloneNanos.get() / clones));
+    }
+
+    public void shutdown() {
+        this.cloner.shutdown();
+    }
+
+    private boolean linkJars(String platform, String version, Path target) throws IOException {
+        Path cache = this.jarCache(platform, version);
+        if (cache == null || !Files.isDirectory(cache)) {
+            return false;
+        }
+        boolean linked = false;
+        for (Path jar : this.jars(cache)) {
+            Path destination = target.resolve(jar.getFileName().toString());
+            if (!Files.exists(destination)) {
+                this.cloner.cloneFile(jar, destination);
+                linked = true;
+            }
+        }
+        return linked;
+    }
+
+    private Path staging(Path target) {
+        return target.resolveSibling("." + target.getFileName() + "-" + System.nanoTime());
+    }
+
+    private Path requireTemplate(String template) {
+        Path directory = this.templateDirectory.resolve(this.validate(template));
+        if (!Files.isDirectory(directory)) {
+            throw new IllegalArgumentException("Template " + template + " not found");
+        }
+        return directory;
+    }
+
+    private Path jarCache(String platform, String version) {
+        if (platform == null || version == null || !NAME.matcher(platform).matches()
+                || !NAME.matcher(version).matches() || version.equalsIgnoreCase("latest")
+                || version.equalsIgnoreCase("snapshot")) {
+            return null;
+        }
+        return this.jarDirectory.resolve(platform.toLowerCase(Locale.ROOT)).resolve(version.toLowerCase(Locale.ROOT));
+    }
+
+    private List<Path> jars(Path directory) throws IOException {
+        try (Stream<Path> entries = Files.list(directory)) {
+            return entries.filter(Files::isRegularFile)
+                    .filter(entry -> entry.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".jar"))
+                    .toList();
+        }
+    }
+
+    private int cachedVersions() {
+        if (!Files.isDirectory(this.jarDirectory)) {
+            return 0;
+        }
+        try (Stream<Path> entries = Files.walk(this.jarDirectory, 2)) {
+            return (int) entries.filter(entry -> this.jarDirectory.relativize(entry).getNameCount() == 2)
+                    .filter(entry -> !entry.getFileName().toString().startsWith("."))
+                    .filter(Files::isDirectory)
+                    .count();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private String validate(String template) {
+        if (template == null || !NAME.matcher(template).matches()) {
+            throw new IllegalArgumentException("Invalid template name " + template);
+        }
+        return template;
+    }
+
+    private boolean isEmpty(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return true;
+        }
+        try (Stream<Path> entries = Files.list(directory)) {
+            return entries.findAny().isEmpty();
+        }
+    }
+}
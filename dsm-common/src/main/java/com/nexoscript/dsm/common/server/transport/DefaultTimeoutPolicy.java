@@ -0,0 +1,45 @@
+package com.nexoscript.dsm.common.server.transport;
+
+import com.github.dockerjava.transport.DockerHttpClient;
+
+public class DefaultTimeoutPolicy implements TimeoutPolicy {
+    @Override
+    public TransportRoute route(DockerHttpClient.Request request) {
+        String path = request.path();
+        int queryStart = path.indexOf('?');
+        String resource = queryStart < 0 ? path : path.substring(0, queryStart);
+        String query = queryStart < 0 ? "" : path.substring(queryStart + 1);
+        String method = request.method();
+        if (resource.endsWith("/events") || resource.endsWith("/attach") || resource.endsWith("/wait")
+                || resource.contains("/exec/") && resource.endsWith("/start")) {
+            return TransportRoute.STREAMING;
+        }
+        if (resource.endsWith("/logs") && (hasParameter(query, "follow", "true") || hasParameter(query, "follow", "1"))) {
+            return TransportRoute.STREAMING;
+        }
+        if (resource.endsWith("/stats") && !hasParameter(query, "stream", "false")
+                && !hasParameter(query, "stream", "0")) {
+            return TransportRoute.STREAMING;
+        }
+        if ("POST".equals(method) && (resource.endsWith("/images/create") || resource.endsWith("/images/load")
+                || resource.endsWith("/build") || resource.endsWith("/stop") || resource.endsWith("/restart")
+                || resource.endsWith("/kill") || resource.endsWith("/prune"))) {
+            return TransportRoute.SLOW;
+        }
+        if ("DELETE".equals(method) && resource.contains("/images/")) {
+            return TransportRoute.SLOW;
+        }
+        return TransportRoute.CONTROL;
+    }
+
+    private static boolean hasParameter(String query, String name, String value) {
+        for (String parameter : query.split("&")) {
+            int separator = parameter.indexOf('=');
+            if (separator > 0 && parameter.substring(0, separator).equals(name)
+                    && parameter.substring(separator + 1).equalsIgnoreCase(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,166 @@
+package com.nexoscript.dsm.common.server.transport;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.github.dockerjava.httpclient5.ApacheDockerHttpClient;
+import com.github.dockerjava.transport.DockerHttpClient;
+import com.github.dockerjava.transport.SSLConfig;
+
+public class DockerTransport implements DockerHttpClient {
+    private final TransportConfiguration configuration;
+    private final Map<TransportRoute, Route> routes;
+
+    public DockerTransport(URI dockerHost, SSLConfig sslConfig, TransportConfiguration configuration) {
+        this.configuration = configuration;
+        this.routes = new EnumMap<>(TransportRoute.class);
+        for (TransportRoute route : TransportRoute.values()) {
+            ApacheDockerHttpClient.Builder builder = new ApacheDockerHttpClient.Builder()
+                    .dockerHost(dockerHost)
+                    .sslConfig(sslConfig)
+                    .maxConnections(configuration.getMaxConnections(route))
+                    .connectionTimeout(configuration.getConnectionTimeout());
+            Duration responseTimeout = configuration.getResponseTimeout(route);
+            if (responseTimeout != null) {
+                builder.responseTimeout(responseTimeout);
+            }
+            this.routes.put(route, new Route(route, builder.build(), configuration.getMaxConnections(route),
+                    responseTimeout));
+        }
+    }
+
+    @Override
+    public Response execute(Request request) {
+        Route route = this.routes.get(this.configuration.getTimeoutPolicy().route(request));
+        long started = System.nanoTime();
+        route.acquire();
+        try {
+            return new TrackedResponse(route, started, route.client.execute(request));
+        } catch (RuntimeException e) {
+            route.release(started, true);
+            throw e;
+        }
+    }
+
+    public List<TransportMetrics> getMetrics() {
+        List<TransportMetrics> metrics = new ArrayList<>(this.routes.size());
+        for (Route route : this.routes.values()) {
+            metrics.add(route.metrics());
+        }
+        return metrics;
+    }
+
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        for (Route route : this.routes.values()) {
+            try {
+                route.client.close();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private static final class Route {
+        private final TransportRoute route;
+        private final DockerHttpClient client;
+        private final int maxConnections;
+        private final Duration responseTimeout;
+        private final AtomicInteger inFlight;
+        private final AtomicInteger peakInFlight;
+        private final AtomicLong requests;
+        private final AtomicLong failures;
+        private final AtomicLong totalLatencyNanos;
+
+        private Route(TransportRoute route, DockerHttpClient client, int maxConnections, Duration responseTimeout) {
+            this.route = route;
+            this.client = client;
+            this.maxConnections = maxConnections;
+            this.responseTimeout = responseTimeout;
+            this.inFlight = new AtomicInteger();
+            this.peakInFlight = new AtomicInteger();
+            this.requests = new AtomicLong();
+            this.failures = new AtomicLong();
+            this.totalLatencyNanos = new AtomicLong();
+        }
+
+        private void acquire() {
+            int current = this.inFlight.incrementAndGet();
+            this.peakInFlight.accumulateAndGet(current, Math::max);
+        }
+
+        private void release(long started, boolean failed) {
+            this.inFlight.decrementAndGet();
+            this.requests.incrementAndGet();
+            this.totalLatencyNanos.addAndGet(System.nanoTime() - started);
+            if (failed) {
+                this.failures.incrementAndGet();
+            }
+        }
+
+        private TransportMetrics metrics() {
+            long requests = this.requests.get();
+            return new TransportMetrics(this.route, this.maxConnections, this.responseTimeout, this.inFlight.get(),
+                    this.peakInFlight.get(), requests, this.failures.get(),
+                    requests == 0 ? Duration.ZERO : Duration.ofNanos(this.totalLatencyNanos.get() / requests));
+        }
+    }
+
+    private static final class TrackedResponse implements Response {
+        private final Route route;
+        private final long started;
+        private final Response response;
+        private final AtomicBoolean closed;
+
+        private TrackedResponse(Route route, long started, Response response) {
+            this.route = route;
+            this.started = started;
+            this.response = response;
+            this.closed = new AtomicBoolean();
+        }
+
+        @Override
+        public int getStatusCode() {
+            return this.response.getStatusCode();
+        }
+
+        @Override
+        public Map<String, List<String>> getHeaders() {
+            return this.response.getHeaders();
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return this.response.getHeader(name);
+        }
+
+        @Override
+        public InputStream getBody() {
+            return this.response.getBody();
+        }
+
+        @Override
+        public void close() {
+            try {
+                this.response.close();
+            } finally {
+                if (this.closed.compareAndSet(false, true)) {
+                    this.route.release(this.started, this.response.getStatusCode() >= 500);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.nexoscript.dsm.common.server.transport;
+
+import com.github.dockerjava.transport.DockerHttpClient;
+
+public interface TimeoutPolicy {
+    TransportRoute route(DockerHttpClient.Request request);
+}
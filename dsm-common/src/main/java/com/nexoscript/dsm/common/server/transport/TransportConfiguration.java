@@ -0,0 +1,67 @@
+package com.nexoscript.dsm.common.server.transport;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+public class TransportConfiguration {
+    private final Map<TransportRoute, Integer> maxConnections;
+    private final Map<TransportRoute, Duration> responseTimeouts;
+    private Duration connectionTimeout;
+    private TimeoutPolicy timeoutPolicy;
+
+    public TransportConfiguration() {
+        this.maxConnections = new EnumMap<>(TransportRoute.class);
+        this.responseTimeouts = new EnumMap<>(TransportRoute.class);
+        this.maxConnections.put(TransportRoute.CONTROL, 64);
+        this.maxConnections.put(TransportRoute.SLOW, 16);
+        this.maxConnections.put(TransportRoute.STREAMING, 1024);
+        this.responseTimeouts.put(TransportRoute.CONTROL, Duration.ofSeconds(45));
+        this.responseTimeouts.put(TransportRoute.SLOW, Duration.ofMinutes(10));
+        this.connectionTimeout = Duration.ofSeconds(30);
+        this.timeoutPolicy = new DefaultTimeoutPolicy();
+    }
+
+    public TransportConfiguration maxConnections(TransportRoute route, int maxConnections) {
+        if (maxConnections < 1) {
+            throw new IllegalArgumentException("maxConnections must be positive");
+        }
+        this.maxConnections.put(route, maxConnections);
+        return this;
+    }
+
+    public TransportConfiguration responseTimeout(TransportRoute route, Duration responseTimeout) {
+        if (responseTimeout == null || responseTimeout.isZero()) {
+            this.responseTimeouts.remove(route);
+        } else {
+            this.responseTimeouts.put(route, responseTimeout);
+        }
+        return this;
+    }
+
+    public TransportConfiguration connectionTimeout(Duration connectionTimeout) {
+        this.connectionTimeout = connectionTimeout;
+        return this;
+    }
+
+    public TransportConfiguration timeoutPolicy(TimeoutPolicy timeoutPolicy) {
+        this.timeoutPolicy = timeoutPolicy;
+        return this;
+    }
+
+    public int getMaxConnections(TransportRoute route) {
+        return this.maxConnections.get(route);
+    }
+
+    public Duration getResponseTimeout(TransportRoute route) {
+        return this.responseTimeouts.get(route);
+    }
+
+    public Duration getConnectionTimeout() {
+        return this.connectionTimeout;
+    }
+
+    public TimeoutPolicy getTimeoutPolicy() {
+        return this.timeoutPolicy;
+    }
+}
@@ -0,0 +1,10 @@
+package com.nexoscript.dsm.common.server.transport;
+
+import java.time.Duration;
+
+public record TransportMetrics(TransportRoute route, int maxConnections, Duration responseTimeout, int inFlight,
+                               int peakInFlight, long requests, long failures, Duration averageLatency) {
+    public double utilization() {
+        return this.maxConnections == 0 ? 0 : (double) this.inFlight / this.maxConnections;
+    }
+}
@@ -0,0 +1,7 @@
+package com.nexoscript.dsm.common.server.transport;
+
+public enum TransportRoute {
+    CONTROL,
+    SLOW,
+    STREAMING
+}
@@ -0,0 +1,294 @@
+package com.nexoscript.dsm.common.server.health;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Proxy;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.command.ListContainersCmd;
+import com.github.dockerjava.api.model.Container;
+import com.nexoscript.dsm.common.server.ServerState;
+import com.nexoscript.dsm.common.server.port.PortAllocator;
+import com.nexoscript.dsm.common.server.registry.ContainerRegistry;
+import com.nexoscript.dsm.common.server.registry.ContainerSnapshotCache;
+import com.nexoscript.dsm.common.server.scheduler.ServerScheduler;
+
+class HealthProberTest {
+    private static final String PREFIX = "dsm";
+    private static final String CONTAINER_NAME = PREFIX + "-00000000-0000-0000-0000-000000000001";
+    private static final String STATUS = "{\"version\":{\"name\":\"Paper 1.20.4\",\"protocol\":765},"
+            + "\"players\":{\"max\":20,\"online\":3},\"description\":{\"text\":\"lobby\"}}";
+
+    @TempDir
+    Path basePath;
+
+    private StatusResponder responder;
+    private ServerScheduler scheduler;
+    private HealthProber prober;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        this.responder = new StatusResponder();
+        this.scheduler = new ServerScheduler(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (this.prober != null) {
+            this.prober.shutdown();
+        }
+        this.scheduler.shutdown();
+        this.responder.close();
+    }
+
+    @Test
+    void parsesStatusResponse() throws IOException {
+        this.start(Duration.ofSeconds(2), Duration.ofSeconds(1));
+
+        HealthStatus status = this.await(HealthStatus::reachable);
+
+        assertTrue(status.everReachable());
+        assertEquals(0, status.consecutiveFailures());
+        assertEquals(3, status.playersOnline());
+        assertEquals(20, status.playersMax());
+        assertEquals("Paper 1.20.4", status.version());
+        assertEquals(ServerState.HEALTHY, this.prober.resolve(CONTAINER_NAME));
+        assertEquals(1, this.responder.nextState);
+        assertEquals(this.responder.getPort(), this.responder.handshakePort);
+        assertEquals("127.0.0.1", this.responder.handshakeHost);
+    }
+
+    @Test
+    void marksSlowServersDegraded() throws IOException {
+        this.responder.delayMillis = 300;
+        this.start(Duration.ofSeconds(2), Duration.ofMillis(100));
+
+        HealthStatus status = this.await(HealthStatus::reachable);
+
+        assertTrue(status.latency().toMillis() >= 300);
+        assertEquals(ServerState.DEGRADED, this.prober.resolve(CONTAINER_NAME));
+    }
+
+    @Test
+    void failsProbesThatTimeOut() throws IOException {
+        this.responder.silent = true;
+        this.start(Duration.ofMillis(200), Duration.ofMillis(100));
+
+        HealthStatus status = this.await(current -> current.consecutiveFailures() >= 2);
+
+        assertFalse(status.reachable());
+        assertFalse(status.everReachable());
+        assertEquals(ServerState.STARTING, this.prober.resolve(CONTAINER_NAME));
+    }
+
+    @Test
+    void marksStoppedServersUnreachable() throws IOException {
+        this.start(Duration.ofMillis(500), Duration.ofSeconds(1));
+        this.await(HealthStatus::reachable);
+        assertEquals(ServerState.HEALTHY, this.prober.resolve(CONTAINER_NAME));
+
+        this.responder.close();
+        HealthStatus status = this.await(current -> !current.reachable());
+
+        assertTrue(status.everReachable());
+        assertTrue(status.consecutiveFailures() >= 1);
+        assertEquals(3, status.playersOnline());
+        assertEquals(ServerState.DEGRADED, this.prober.resolve(CONTAINER_NAME));
+
+        this.prober.onContainerEvent("die", CONTAINER_NAME, "id");
+        assertEquals(HealthStatus.UNKNOWN, this.prober.getStatus(CONTAINER_NAME));
+    }
+
+    private void start(Duration timeout, Duration degradedLatency) throws IOException {
+        DockerClient dockerClient = dockerClient(container(CONTAINER_NAME, this.responder.getPort()));
+        ContainerRegistry registry = new ContainerRegistry(PREFIX, "local", dockerClient, this.basePath.toString(),
+                new PortAllocator(1024), new ContainerSnapshotCache(PREFIX, dockerClient, Duration.ofSeconds(1)));
+        registry.seed();
+        this.prober = new HealthProber(registry, this.scheduler, "127.0.0.1", Duration.ofMillis(50), timeout,
+                degradedLatency);
+        this.prober.start();
+    }
+
+    private HealthStatus await(Predicate<HealthStatus> condition) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        HealthStatus status = this.prober.getStatus(CONTAINER_NAME);
+        while (System.nanoTime() < deadline) {
+            status = this.prober.getStatus(CONTAINER_NAME);
+            if (condition.test(status)) {
+                return status;
+            }
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return fail("Health status never matched, last status was " + status);
+    }
+
+    private static Container container(String name, int port) {
+        String json = "{\"Id\":\"" + String.format("%064x", 1) + "\",\"Names\":[\"/" + name + "\"],"
+                + "\"State\":\"running\",\"Ports\":[{\"PrivatePort\":25565,\"PublicPort\":" + port
+                + ",\"Type\":\"tcp\"}]}";
+        try {
+            return new ObjectMapper().readValue(json, Container.class);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static DockerClient dockerClient(Container container) {
+        ListContainersCmd command = (ListContainersCmd) Proxy.newProxyInstance(
+                ListContainersCmd.class.getClassLoader(), new Class<?>[] { ListContainersCmd.class },
+                (proxy, method, args) -> method.getName().equals("exec") ? List.of(container) : proxy);
+        return (DockerClient) Proxy.newProxyInstance(DockerClient.class.getClassLoader(),
+                new Class<?>[] { DockerClient.class }, (proxy, method, args) -> {
+                    if (method.getName().equals("listContainersCmd")) {
+                        return command;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static final class StatusResponder implements Closeable {
+        private final ServerSocket serverSocket;
+        private final List<Socket> sockets;
+        private volatile long delayMillis;
+        private volatile boolean silent;
+        private volatile String handshakeHost;
+        private volatile int handshakePort;
+        private volatile int nextState;
+
+        private StatusResponder() throws IOException {
+            this.serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+            this.sockets = new CopyOnWriteArrayList<>();
+            Thread thread = new Thread(this::accept, "slp-responder");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        private int getPort() {
+            return this.serverSocket.getLocalPort();
+        }
+
+        private void accept() {
+            while (!this.serverSocket.isClosed()) {
+                try {
+                    Socket socket = this.serverSocket.accept();
+                    this.sockets.add(socket);
+                    Thread thread = new Thread(() -> this.respond(socket), "slp-connection");
+                    thread.setDaemon(true);
+                    thread.start();
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }
+
+        private void respond(Socket socket) {
+            try (socket) {
+                DataInputStream input = new DataInputStream(socket.getInputStream());
+                readVarInt(input);
+                if (readVarInt(input) != 0x00) {
+                    return;
+                }
+                readVarInt(input);
+                byte[] host = new byte[readVarInt(input)];
+                input.readFully(host);
+                this.handshakeHost = new String(host, StandardCharsets.UTF_8);
+                this.handshakePort = input.readUnsignedShort();
+                this.nextState = readVarInt(input);
+                readVarInt(input);
+                if (readVarInt(input) != 0x00) {
+                    return;
+                }
+                if (this.silent) {
+                    input.read();
+                    return;
+                }
+                if (this.delayMillis > 0) {
+                    Thread.sleep(this.delayMillis);
+                }
+                ByteArrayOutputStream packet = new ByteArrayOutputStream();
+                byte[] json = STATUS.getBytes(StandardCharsets.UTF_8);
+                writeVarInt(packet, 0x00);
+                writeVarInt(packet, json.length);
+                packet.writeBytes(json);
+                OutputStream output = socket.getOutputStream();
+                ByteArrayOutputStream response = new ByteArrayOutputStream();
+                writeVarInt(response, packet.size());
+                response.writeBytes(packet.toByteArray());
+                output.write(response.toByteArray());
+                output.flush();
+            } catch (IOException e) {
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                this.sockets.remove(socket);
+            }
+        }
+
+        @Override
+        public void close() {
+            try {
+                this.serverSocket.close();
+            } catch (IOException ignored) {
+            }
+            for (Socket socket : this.sockets) {
+                try {
+                    socket.close();
+                } catch (IOException ignored) {
+                }
+            }
+        }
+
+        private static int readVarInt(InputStream input) throws IOException {
+            int value = 0;
+            for (int position = 0; position < 5; position++) {
+                int current = input.read();
+                if (current < 0) {
+                    throw new IOException("End of stream");
+                }
+                value |= (current & 0x7F) << (position * 7);
+                if ((current & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("VarInt too big");
+        }
+
+        private static void writeVarInt(ByteArrayOutputStream output, int value) {
+            while ((value & ~0x7F) != 0) {
+                output.write((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            output.write(value);
+        }
+    }
+}
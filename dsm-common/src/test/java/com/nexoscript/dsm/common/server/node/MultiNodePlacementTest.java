@@ -0,0 +1,120 @@
+package com.nexoscript.dsm.common.server.node;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.github.dockerjava.api.model.Container;
+import com.nexoscript.dsm.common.server.bulk.BulkOperationResult;
+import com.nexoscript.dsm.common.server.container.ServerContainer;
+import com.nexoscript.dsm.common.server.manager.ServerManager;
+import com.nexoscript.dsm.common.server.metadata.ServerMetadata;
+import com.nexoscript.dsm.common.server.metadata.ServerMetadataStore;
+import com.nexoscript.dsm.common.testing.FakeDockerClient;
+
+class MultiNodePlacementTest {
+    private static final String PREFIX = "test-server";
+
+    @TempDir
+    Path basePath;
+
+    private ServerManager serverManager;
+    private ServerNode alpha;
+    private ServerNode beta;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        this.serverManager = new ServerManager(PREFIX, 10000, this.basePath.toString(), Duration.ofDays(1));
+        this.alpha = this.node("alpha", 16384, 20000, 2, 4096);
+        this.beta = this.node("beta", 32768, 30000, 6, 1024);
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.serverManager.close();
+    }
+
+    @Test
+    void mappingCommitsPersistedMemoryPerNode() {
+        assertEquals(2, this.alpha.getServerCount());
+        assertEquals(6, this.beta.getServerCount());
+        assertEquals(10240, this.alpha.getAdmission().getMetrics().memoryCommitted());
+        assertEquals(7680, this.beta.getAdmission().getMetrics().memoryCommitted());
+        assertTrue(this.alpha.getMemoryUtilization() > this.beta.getMemoryUtilization());
+    }
+
+    @Test
+    void placesOnNodesThatFit() {
+        List<ServerNode> nodes = this.serverManager.getNodes();
+
+        assertEquals(this.beta, Placement.LEAST_LOADED.place(nodes, 1024));
+        assertEquals(this.alpha, Placement.BIN_PACKING.place(nodes, 1024));
+        assertEquals(this.alpha, Placement.SPREAD.place(nodes, 1024));
+    }
+
+    @Test
+    void skipsNodesWithoutCapacity() {
+        List<ServerNode> nodes = this.serverManager.getNodes();
+
+        assertEquals(this.beta, Placement.LEAST_LOADED.place(nodes, 8192));
+        assertEquals(this.beta, Placement.BIN_PACKING.place(nodes, 8192));
+        assertEquals(this.beta, Placement.SPREAD.place(nodes, 8192));
+        assertEquals(this.beta, Placement.BIN_PACKING.place(nodes, 65536));
+    }
+
+    @Test
+    void fansOutAcrossNodes() {
+        List<Container> containers = this.serverManager.getContainers();
+        assertEquals(8, containers.size());
+
+        Map<String, Long> perNode = this.serverManager.getServerContainers().stream()
+                .collect(Collectors.groupingBy(ServerContainer::getNode, Collectors.counting()));
+        assertEquals(Map.of("alpha", 2L, "beta", 6L), perNode);
+
+        String betaServer = this.beta.getRegistry().getAll().iterator().next().getContainerName();
+        assertEquals("beta", this.serverManager.getServerContainer(betaServer).getNode());
+
+        BulkOperationResult result = this.serverManager.startServerContainer("*");
+        assertEquals(8, result.getOutcomes().size());
+        assertEquals(8, result.getSuccesses().size());
+        Set<String> started = result.getOutcomes().stream()
+                .map(BulkOperationResult.Outcome::containerName)
+                .collect(Collectors.toSet());
+        assertEquals(containers.stream().map(container -> container.getNames()[0].substring(1))
+                .collect(Collectors.toSet()), started);
+    }
+
+    private ServerNode node(String name, long memory, int startPort, int servers, int serverMemory)
+            throws IOException {
+        Path nodePath = Files.createDirectories(this.basePath.resolve(name));
+        ServerMetadataStore metadataStore = new ServerMetadataStore();
+        List<Container> containers = new ArrayList<>(servers);
+        for (int i = 0; i < servers; i++) {
+            String uniqueId = String.format("00000000-0000-0000-%04x-%012d", startPort, i);
+            String containerName = PREFIX + "-" + uniqueId;
+            String containerId = String.format("%032x%032x", startPort, i);
+            int port = startPort + i;
+            containers.add(FakeDockerClient.container("/" + containerName, containerId, "running", port));
+            Path serverPath = Files.createDirectories(nodePath.resolve(uniqueId).resolve("server"));
+            metadataStore.write(new ServerMetadata(containerName, containerId, serverPath.toString(), port, "paper",
+                    "1.20.4", serverMemory, new String[0], null, false, false));
+        }
+        NodeConfiguration configuration = new NodeConfiguration(name, null, nodePath.toString(), startPort,
+                startPort + 999, memory, 64);
+        return this.serverManager.addNode(configuration, FakeDockerClient.create(containers), null);
+    }
+}
@@ -0,0 +1,106 @@
+package com.nexoscript.dsm.common.testing;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.command.InspectContainerCmd;
+import com.github.dockerjava.api.command.InspectContainerResponse;
+import com.github.dockerjava.api.command.ListContainersCmd;
+import com.github.dockerjava.api.command.RestartContainerCmd;
+import com.github.dockerjava.api.command.StartContainerCmd;
+import com.github.dockerjava.api.command.StopContainerCmd;
+import com.github.dockerjava.api.exception.NotFoundException;
+import com.github.dockerjava.api.model.Container;
+
+public final class FakeDockerClient {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private FakeDockerClient() {
+    }
+
+    public static DockerClient create(List<Container> containers) {
+        Map<String, InspectContainerResponse> inspections = new HashMap<>();
+        for (Container container : containers) {
+            inspections.put(container.getId(), inspection(container.getId(),
+                    Integer.parseInt(container.getLabels().get("port"))));
+        }
+        return (DockerClient) Proxy.newProxyInstance(DockerClient.class.getClassLoader(),
+                new Class<?>[] { DockerClient.class }, (proxy, method, args) -> switch (method.getName()) {
+                    case "listContainersCmd" -> command(ListContainersCmd.class, () -> containers);
+                    case "inspectContainerCmd" -> command(InspectContainerCmd.class, () -> {
+                        InspectContainerResponse response = inspections.get((String) args[0]);
+                        if (response == null) {
+                            throw new NotFoundException("No such container: " + args[0]);
+                        }
+                        return response;
+                    });
+                    case "startContainerCmd" -> command(StartContainerCmd.class, () -> null);
+                    case "stopContainerCmd" -> command(StopContainerCmd.class, () -> null);
+                    case "restartContainerCmd" -> command(RestartContainerCmd.class, () -> null);
+                    case "close" -> null;
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "FakeDockerClient";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    public static List<Container> containers(String prefix, int count, int startPort) {
+        List<Container> containers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String uniqueId = String.format("00000000-0000-0000-0000-%012d", i);
+            containers.add(container("/" + prefix + "-" + uniqueId, String.format("%064x", i),
+                    i % 4 == 0 ? "exited" : "running", startPort + i));
+        }
+        return containers;
+    }
+
+    public static Container container(String name, String id, String state, int port) {
+        boolean running = state.equals("running");
+        String json = "{\"Id\":\"" + id + "\",\"Names\":[\"" + name + "\"],\"State\":\"" + state + "\","
+                + "\"Status\":\"" + (running ? "Up 2 hours" : "Exited (0) 2 hours ago") + "\","
+                + "\"Image\":\"itzg/minecraft-server:latest\",\"Labels\":{\"port\":\"" + port + "\"},"
+                + "\"Ports\":" + (running ? "[{\"PrivatePort\":25565,\"PublicPort\":" + port + ",\"Type\":\"tcp\"}]"
+                : "[]") + "}";
+        try {
+            return MAPPER.readValue(json, Container.class);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static InspectContainerResponse inspection(String id, int port) {
+        String json = "{\"Id\":\"" + id + "\",\"HostConfig\":{\"PortBindings\":{\"25565/tcp\":"
+                + "[{\"HostIp\":\"\",\"HostPort\":\"" + port + "\"}]}}}";
+        try {
+            return MAPPER.readValue(json, InspectContainerResponse.class);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T command(Class<T> type, Supplier<?> result) {
+        InvocationHandler handler = new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                if (method.getName().equals("exec") && (args == null || args.length == 0)) {
+                    return result.get();
+                }
+                if (method.getReturnType().isAssignableFrom(type)) {
+                    return proxy;
+                }
+                return null;
+            }
+        };
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, handler);
+    }
+}
@@ -0,0 +1,36 @@
+package com.nexoscript.dsm.console;
+
+public final class ColorTemplate {
+    private final String template;
+    private final String rendered;
+    private final String renderedWithReset;
+    private final boolean open;
+
+    ColorTemplate(String template) {
+        StringBuilder builder = new StringBuilder(template.length() * 4);
+        this.template = template;
+        this.open = ConsoleColor.render(template, builder);
+        this.rendered = builder.toString();
+        this.renderedWithReset = this.rendered + ConsoleColor.RESET;
+    }
+
+    public String render() {
+        return this.renderedWithReset;
+    }
+
+    public String render(String text) {
+        return this.render(text, new StringBuilder(this.rendered.length() + text.length() + 16)).toString();
+    }
+
+    public StringBuilder render(String text, StringBuilder out) {
+        if (this.open) {
+            return ConsoleColor.apply(this.template + text, out);
+        }
+        out.append(this.rendered);
+        return ConsoleColor.apply(text, out);
+    }
+
+    public String getTemplate() {
+        return this.template;
+    }
+}
@@ -1,14 +1,18 @@
 package com.nexoscript.dsm.console;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class ConsoleColor {
+    static final String RESET = "\033[0m";
 
-    private static final Pattern GRADIENT_PATTERN = Pattern
-            .compile("\\[([A-Fa-f0-9]{6})-([A-Fa-f0-9]{6})](.*?)(?=\\[|&|$)");
-    private static final Pattern COLOR_CODE_PATTERN = Pattern.compile("&([0-9A-Fa-fLl])");
-    private static final Pattern HEX_PATTERN = Pattern.compile("\\[([A-Fa-f0-9]{6})](.*?)(?=\\[|&|$)");
+    private static final int GRADIENT_HEADER_LENGTH = 15;
+    private static final int HEX_HEADER_LENGTH = 8;
+    private static final int MAX_CACHED_TEMPLATES = 1024;
+    private static final int MAX_REUSED_BUFFER = 8192;
+
+    private static final Map<String, ColorTemplate> TEMPLATES = new ConcurrentHashMap<>();
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(256));
 
     private static final String[] ANSI_COLORS = {
             "\033[30m", // &0 - Black
@@ -31,95 +35,209 @@ public class ConsoleColor {
     };
 
     public static String apply(String text) {
-        text = applyGradients(text);
-        text = applyHexColors(text);
-        text = applyColorCodes(text);
-        return text + "\033[0m";
+        StringBuilder buffer = BUFFER.get();
+        buffer.setLength(0);
+        apply(text, buffer);
+        String result = buffer.toString();
+        if (buffer.capacity() > MAX_REUSED_BUFFER) {
+            BUFFER.remove();
+        }
+        return result;
     }
 
-    private static String applyGradients(String text) {
-        Matcher gradientMatcher = GRADIENT_PATTERN.matcher(text);
-        StringBuffer result = new StringBuffer();
+    public static StringBuilder apply(String text, StringBuilder out) {
+        render(text, out);
+        return out.append(RESET);
+    }
 
-        while (gradientMatcher.find()) {
-            String startColor = gradientMatcher.group(1);
-            String endColor = gradientMatcher.group(2);
-            String gradientText = gradientMatcher.group(3);
+    public static ColorTemplate compile(String template) {
+        ColorTemplate compiled = TEMPLATES.get(template);
+        if (compiled != null) {
+            return compiled;
+        }
+        compiled = new ColorTemplate(template);
+        if (TEMPLATES.size() < MAX_CACHED_TEMPLATES) {
+            ColorTemplate existing = TEMPLATES.putIfAbsent(template, compiled);
+            if (existing != null) {
+                return existing;
+            }
+        }
+        return compiled;
+    }
 
-            String replacement = applyGradient(startColor, endColor, gradientText);
-            gradientMatcher.appendReplacement(result, Matcher.quoteReplacement(replacement));
+    static boolean render(String text, StringBuilder out) {
+        int length = text.length();
+        boolean open = length > 0 && text.charAt(length - 1) == '&';
+        int i = 0;
+        while (i < length) {
+            char c = text.charAt(i);
+            if (c == '[') {
+                if (isGradientHeader(text, i)) {
+                    int end = bodyEnd(text, i + GRADIENT_HEADER_LENGTH);
+                    if (end >= 0) {
+                        open |= reachesEnd(text, end);
+                        appendGradient(text, i + 1, text, i + 8, text, i + GRADIENT_HEADER_LENGTH, end, out);
+                        i = end;
+                        continue;
+                    }
+                } else if (isHexHeader(text, i)) {
+                    int end = bodyEnd(text, i + HEX_HEADER_LENGTH);
+                    if (end >= 0) {
+                        open |= reachesEnd(text, end);
+                        appendRgb(hex(text, i + 1), hex(text, i + 3), hex(text, i + 5), out);
+                        i += HEX_HEADER_LENGTH;
+                        continue;
+                    }
+                }
+                open |= isPartialHeader(text, i);
+            } else if (c == '&' && i + 1 < length) {
+                int index = colorIndex(text.charAt(i + 1));
+                if (index >= 0) {
+                    out.append(ANSI_COLORS[index]);
+                    i += 2;
+                    continue;
+                }
+            }
+            out.append(c);
+            i++;
         }
+        return open;
+    }
+
+    public static String rgb(String hexColor) {
+        return appendRgb(hex(hexColor, 0), hex(hexColor, 2), hex(hexColor, 4), new StringBuilder(19)).toString();
+    }
 
-        gradientMatcher.appendTail(result);
+    public static String gradient(String startColor, String endColor, String text) {
+        StringBuilder result = new StringBuilder(text.length() * 20 + 4);
+        appendGradient(startColor, 0, endColor, 0, text, 0, text.length(), result);
         return result.toString();
     }
 
-    private static String applyHexColors(String text) {
-        Matcher hexMatcher = HEX_PATTERN.matcher(text);
-        StringBuffer result = new StringBuffer();
+    private static void appendGradient(String startColor, int startOffset, String endColor, int endOffset, String text,
+                                       int from, int to, StringBuilder out) {
+        int length = to - from;
+        int r1 = hex(startColor, startOffset);
+        int g1 = hex(startColor, startOffset + 2);
+        int b1 = hex(startColor, startOffset + 4);
 
-        while (hexMatcher.find()) {
-            String hexColor = hexMatcher.group(1);
-            String hexText = hexMatcher.group(2);
+        int r2 = hex(endColor, endOffset);
+        int g2 = hex(endColor, endOffset + 2);
+        int b2 = hex(endColor, endOffset + 4);
 
-            String replacement = rgb(hexColor) + hexText;
-            hexMatcher.appendReplacement(result, Matcher.quoteReplacement(replacement));
+        for (int i = 0; i < length; i++) {
+            double ratio = (double) i / (length - 1);
+            int red = (int) (r1 + ratio * (r2 - r1));
+            int green = (int) (g1 + ratio * (g2 - g1));
+            int blue = (int) (b1 + ratio * (b2 - b1));
+
+            appendRgb(red, green, blue, out).append(text.charAt(from + i));
         }
 
-        hexMatcher.appendTail(result);
-        return result.toString();
+        out.append(RESET);
     }
 
-    private static String applyColorCodes(String text) {
-        Matcher colorCodeMatcher = COLOR_CODE_PATTERN.matcher(text);
-        StringBuffer result = new StringBuffer();
+    private static StringBuilder appendRgb(int red, int green, int blue, StringBuilder out) {
+        return out.append("\033[38;2;").append(red).append(';').append(green).append(';').append(blue).append('m');
+    }
 
-        while (colorCodeMatcher.find()) {
-            char colorCode = Character.toLowerCase(colorCodeMatcher.group(1).charAt(0));
-            int index = (colorCode >= '0' && colorCode <= '9') ? colorCode - '0'
-                    : (colorCode >= 'a' && colorCode <= 'f') ? colorCode - 'a' + 10 : 16;
+    private static int bodyEnd(String text, int from) {
+        int length = text.length();
+        for (int i = from; i < length; i++) {
+            char c = text.charAt(i);
+            if (c == '[' || c == '&') {
+                return i;
+            }
+            if (isLineTerminator(c)) {
+                return matchesEndAnchor(text, i) ? i : -1;
+            }
+        }
+        return length;
+    }
 
-            String replacement = index >= 0 && index < ANSI_COLORS.length ? ANSI_COLORS[index] : "";
-            colorCodeMatcher.appendReplacement(result, Matcher.quoteReplacement(replacement));
+    private static boolean matchesEndAnchor(String text, int index) {
+        int length = text.length();
+        if (index < length - 2) {
+            return false;
         }
+        if (index == length - 2) {
+            return text.charAt(index) == '\r' && text.charAt(index + 1) == '\n';
+        }
+        return text.charAt(index) != '\n' || index == 0 || text.charAt(index - 1) != '\r';
+    }
 
-        colorCodeMatcher.appendTail(result);
-        return result.toString();
+    private static boolean reachesEnd(String text, int end) {
+        return end == text.length() || isLineTerminator(text.charAt(end));
     }
 
-    public static String rgb(String hexColor) {
-        int r = Integer.parseInt(hexColor.substring(0, 2), 16);
-        int g = Integer.parseInt(hexColor.substring(2, 4), 16);
-        int b = Integer.parseInt(hexColor.substring(4, 6), 16);
-        return String.format("\033[38;2;%d;%d;%dm", r, g, b);
+    private static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || (c | 1) == '\u2029';
     }
 
-    public static String gradient(String startColor, String endColor, String text) {
-        return applyGradient(startColor, endColor, text);
+    private static boolean isGradientHeader(String text, int index) {
+        return index + GRADIENT_HEADER_LENGTH <= text.length()
+                && isHex(text, index + 1, 6)
+                && text.charAt(index + 7) == '-'
+                && isHex(text, index + 8, 6)
+                && text.charAt(index + 14) == ']';
+    }
+
+    private static boolean isHexHeader(String text, int index) {
+        return index + HEX_HEADER_LENGTH <= text.length()
+                && isHex(text, index + 1, 6)
+                && text.charAt(index + 7) == ']';
     }
 
-    private static String applyGradient(String startColor, String endColor, String text) {
+    private static boolean isPartialHeader(String text, int index) {
         int length = text.length();
-        StringBuilder result = new StringBuilder();
+        int i = index + 1;
+        int digits = 0;
+        while (i < length && digits < 6 && isHex(text.charAt(i))) {
+            i++;
+            digits++;
+        }
+        if (i == length) {
+            return true;
+        }
+        if (digits < 6 || text.charAt(i) != '-') {
+            return false;
+        }
+        i++;
+        digits = 0;
+        while (i < length && digits < 6 && isHex(text.charAt(i))) {
+            i++;
+            digits++;
+        }
+        return i == length;
+    }
 
-        int r1 = Integer.parseInt(startColor.substring(0, 2), 16);
-        int g1 = Integer.parseInt(startColor.substring(2, 4), 16);
-        int b1 = Integer.parseInt(startColor.substring(4, 6), 16);
+    private static boolean isHex(String text, int from, int count) {
+        for (int i = from; i < from + count; i++) {
+            if (!isHex(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
 
-        int r2 = Integer.parseInt(endColor.substring(0, 2), 16);
-        int g2 = Integer.parseInt(endColor.substring(2, 4), 16);
-        int b2 = Integer.parseInt(endColor.substring(4, 6), 16);
+    private static boolean isHex(char c) {
+        return c >= '0' && c <= '9' || c >= 'a' && c <= 'f' || c >= 'A' && c <= 'F';
+    }
 
-        for (int i = 0; i < length; i++) {
-            double ratio = (double) i / (length - 1);
-            int red = (int) (r1 + ratio * (r2 - r1));
-            int green = (int) (g1 + ratio * (g2 - g1));
-            int blue = (int) (b1 + ratio * (b2 - b1));
+    private static int hex(String text, int offset) {
+        return Character.digit(text.charAt(offset), 16) << 4 | Character.digit(text.charAt(offset + 1), 16);
+    }
 
-            result.append(String.format("\033[38;2;%d;%d;%dm", red, green, blue))
-                    .append(text.charAt(i));
+    private static int colorIndex(char colorCode) {
+        if (colorCode >= '0' && colorCode <= '9') {
+            return colorCode - '0';
         }
-
-        return result.toString() + "\033[0m";
+        if (colorCode >= 'a' && colorCode <= 'f') {
+            return colorCode - 'a' + 10;
+        }
+        if (colorCode >= 'A' && colorCode <= 'F') {
+            return colorCode - 'A' + 10;
+        }
+        return colorCode == 'l' || colorCode == 'L' ? 16 : -1;
     }
 }
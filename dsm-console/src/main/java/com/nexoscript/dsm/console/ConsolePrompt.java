@@ -0,0 +1,102 @@
+package com.nexoscript.dsm.console;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import org.jline.utils.AttributedString;
+
+import com.nexoscript.dsm.common.server.node.ServerNode;
+
+public final class ConsolePrompt {
+    private static final String PROMPT = "\r[33afff-33ffff]%hostname &7» &f";
+    private static final String SUMMARY_PROMPT = "\r[33afff-33ffff]%hostname &8(&a%running&7/&f%total&8) &7» &f";
+    private static final String UNKNOWN_PROMPT = "\r[33afff-33ffff]&7@&e%hostname &7» &f";
+
+    private volatile String hostname;
+    private volatile Supplier<? extends Collection<ServerNode>> nodeSupplier;
+    private volatile Rendered rendered;
+
+    public ConsolePrompt() {
+        this.hostname = this.environmentHostname();
+        Thread resolver = new Thread(this::resolveHostname, "dsm-hostname");
+        resolver.setDaemon(true);
+        resolver.start();
+    }
+
+    public void setSummary(Supplier<? extends Collection<ServerNode>> nodeSupplier) {
+        this.nodeSupplier = nodeSupplier;
+    }
+
+    public String render() {
+        return this.current().text();
+    }
+
+    public String renderAnsi() {
+        return this.current().ansi();
+    }
+
+    public String getHostname() {
+        return this.hostname;
+    }
+
+    private Rendered current() {
+        String hostname = this.hostname;
+        int running = -1;
+        int total = -1;
+        Supplier<? extends Collection<ServerNode>> nodeSupplier = this.nodeSupplier;
+        Collection<ServerNode> nodes = nodeSupplier != null ? nodeSupplier.get() : null;
+        if (nodes != null && !nodes.isEmpty()) {
+            running = 0;
+            total = 0;
+            for (ServerNode node : nodes) {
+                running += node.getRegistry().getRunningCount();
+                total += node.getRegistry().size();
+            }
+        }
+        Rendered rendered = this.rendered;
+        if (rendered != null && rendered.matches(hostname, running, total)) {
+            return rendered;
+        }
+        String text = ConsoleColor.apply(this.template(hostname, running, total));
+        rendered = new Rendered(hostname, running, total, text, new AttributedString(text).toAnsi());
+        this.rendered = rendered;
+        return rendered;
+    }
+
+    private String template(String hostname, int running, int total) {
+        if (hostname == null) {
+            return UNKNOWN_PROMPT.replace("%hostname", "unknown");
+        }
+        if (total < 0) {
+            return PROMPT.replace("%hostname", hostname);
+        }
+        return SUMMARY_PROMPT.replace("%hostname", hostname)
+                .replace("%running", String.valueOf(running))
+                .replace("%total", String.valueOf(total));
+    }
+
+    private void resolveHostname() {
+        try {
+            this.hostname = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            System.err.println("Could not resolve local hostname: " + e.getMessage());
+        }
+    }
+
+    private String environmentHostname() {
+        String hostname = System.getenv("HOSTNAME");
+        if (hostname == null || hostname.isBlank()) {
+            hostname = System.getenv("COMPUTERNAME");
+        }
+        return hostname == null || hostname.isBlank() ? null : hostname;
+    }
+
+    private record Rendered(String hostname, int running, int total, String text, String ansi) {
+        private boolean matches(String hostname, int running, int total) {
+            return Objects.equals(this.hostname, hostname) && this.running == running && this.total == total;
+        }
+    }
+}
@@ -1,11 +1,16 @@
 package com.nexoscript.dsm.console;
 
+import java.io.Closeable;
 import java.io.IOException;
-import java.net.InetAddress;
-import java.net.UnknownHostException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.jline.reader.EndOfFileException;
 import org.jline.reader.LineReader;
@@ -13,16 +18,37 @@ import org.jline.reader.LineReaderBuilder;
 import org.jline.reader.impl.LineReaderImpl;
 import org.jline.terminal.Terminal;
 import org.jline.terminal.TerminalBuilder;
-import org.jline.utils.AttributedString;
 import org.jline.utils.InfoCmp;
 
+import com.nexoscript.dsm.common.server.admission.AdmissionMetrics;
+import com.nexoscript.dsm.common.server.bulk.BulkOperationResult;
+import com.nexoscript.dsm.common.server.configuration.ServerConfiguration;
+import com.nexoscript.dsm.common.server.container.ServerContainer;
+import com.nexoscript.dsm.common.server.health.HealthStatus;
+import com.nexoscript.dsm.common.server.metrics.StatsSnapshot;
+import com.nexoscript.dsm.common.server.node.ServerNode;
+import com.nexoscript.dsm.common.server.pool.PoolMetrics;
+import com.nexoscript.dsm.common.server.transport.TransportMetrics;
+import com.nexoscript.dsm.common.server.provisioning.ProvisioningStage;
+import com.nexoscript.dsm.common.server.recovery.RecoveryReport;
+import com.nexoscript.dsm.common.server.scheduler.SchedulerMetrics;
+import com.nexoscript.dsm.common.server.template.TemplateMetrics;
 import com.nexoscript.dsm.common.server.manager.ServerManager;
 import com.nexoscript.dsm.common.server.ServerState;
+import com.nexoscript.dsm.console.command.CommandExecutor;
+import com.nexoscript.dsm.console.command.CommandJob;
+import com.nexoscript.dsm.console.command.JobState;
 
 public final class JLineConsole {
+    private static final ColorTemplate PREFIX = ConsoleColor.compile("\r[33afff-33ffff]dockermanager &7» &f");
+    private static final ColorTemplate MESSAGE_PREFIX = ConsoleColor.compile(PREFIX.render());
+
     private final Terminal terminal;
     private final LineReaderImpl reader;
+    private final ConsolePrompt prompt;
 
+    private final Map<String, Closeable> followedLogs;
+    private final CommandExecutor commandExecutor;
     private ServerManager serverManager;
 
     private boolean isRunning;
@@ -40,8 +66,10 @@ public final class JLineConsole {
                 .option(LineReader.Option.AUTO_PARAM_SLASH, false)
                 .variable(LineReader.HISTORY_FILE, Paths.get(System.getProperty("user.home"), ".jline_history"))
                 .build();
-        AttributedString coloredPrefix = new AttributedString(this.userPrefix());
-        this.reader.setPrompt(coloredPrefix.toAnsi());
+        this.prompt = new ConsolePrompt();
+        this.reader.setPrompt(this.prompt.renderAnsi());
+        this.followedLogs = new ConcurrentHashMap<>();
+        this.commandExecutor = new CommandExecutor(8, this::printJobFinished);
         this.isRunning = true;
         this.clear();
         this.sendWelcomeMessage();
@@ -50,8 +78,7 @@ public final class JLineConsole {
     public void start() {
         while (this.isRunning) {
             try {
-                AttributedString coloredPrefix = new AttributedString(this.userPrefix());
-                String input = this.reader.readLine(coloredPrefix.toAnsi()).trim();
+                String input = this.reader.readLine(this.prompt.renderAnsi()).trim();
                 if (input.isEmpty()) {
                     this.print("[FF3333]The input field can not be empty");
                     continue;
@@ -61,68 +88,84 @@ public final class JLineConsole {
                 String[] args = Arrays.copyOfRange(inputParts, 1, inputParts.length);
                 switch (command) {
                     case "clear" -> this.clear();
-                    case "create-container", "create-con" -> {
-                        if (args.length < 4) {
-                            this.print("[FF3333]Need platform and version argument");
-                            continue;
-                        }
-                        this.serverManager.createServerContainer(args[0].toLowerCase(), args[1].toLowerCase(), Integer.parseInt(args[2]), args[3].split(";"));
+                    case "create-container", "create-con", "recreate-container", "recreate-con", "start-container",
+                         "start-con", "restart-container", "restart-con", "stop-container", "stop-con",
+                         "remove-container", "remove-con", "logs", "follow", "list-containers", "list-cons",
+                         "reconcile", "recover", "template-save" -> {
+                        CommandJob job = this.commandExecutor.submit(input, () -> this.execute(command, args));
+                        this.print("&7Job &e#" + job.getId() + " &7queued&8: &f" + input);
                     }
-                    case "start-container", "start-con" -> {
-                        if (args.length < 1) {
-                            this.print("[FF3333]Need container name");
-                            continue;
+                    case "stats", "pool", "transport", "capacity", "nodes", "threads", "templates" ->
+                            this.execute(command, args);
+                    case "jobs" -> {
+                        for (CommandJob job : this.commandExecutor.getJobs()) {
+                            this.print("&e#" + job.getId() + " &7- &f" + job.getCommandLine() + " &7" + job.getState()
+                                    + " &8(" + job.getDuration().toMillis() + "ms)");
                         }
-                        this.serverManager.startServerContainer(args[0]);
                     }
-                    case "recreate-container", "recreate-con" -> {
-                        if (args.length < 5) {
-                            this.print("[FF3333]Need uniqueId, platform and version argument");
+                    case "wait" -> {
+                        CommandJob job = this.job(args);
+                        if (job == null) {
                             continue;
                         }
-                        this.serverManager.recreateServerContainer(args[1].toLowerCase(), args[2].toLowerCase(),
-                                args[0], Integer.parseInt(args[3]), args[4].split(";"));
-                    }
-                    case "restart-container", "restart-con" -> {
-                        if (args.length < 1) {
-                            this.print("[FF3333]Need container name");
-                            continue;
+                        Duration timeout = Duration.ofSeconds(args.length > 1 ? Long.parseLong(args[1]) : 300);
+                        if (!job.await(timeout)) {
+                            this.print("&eJob #" + job.getId() + " is still " + job.getState().name().toLowerCase()
+                                    + " after " + timeout.toSeconds() + "s");
                         }
-                        this.serverManager.restartServerContainer(args[0]);
                     }
-                    case "stop-container", "stop-con" -> {
-                        if (args.length < 1) {
-                            this.print("[FF3333]Need container name");
+                    case "cancel" -> {
+                        CommandJob job = this.job(args);
+                        if (job == null) {
                             continue;
                         }
-                        this.serverManager.stopServerContainer(args[0]);
+                        if (!job.cancel()) {
+                            this.print(job.getState() == JobState.RUNNING
+                                    ? "&eJob #" + job.getId() + " is already running and can no longer be cancelled"
+                                    : "&eJob #" + job.getId() + " already " + job.getState().name().toLowerCase());
+                        }
                     }
-                    case "remove-container", "remove-con" -> {
+                    case "unfollow" -> {
                         if (args.length < 1) {
                             this.print("[FF3333]Need container name");
                             continue;
                         }
-                        if (this.serverManager.getServerStateByName(args[0]).equals(ServerState.ONLINE)) {
-                            this.serverManager.stopServerContainer(args[0]);
+                        Closeable subscription = this.followedLogs.remove(args[0]);
+                        if (subscription == null) {
+                            this.print("&eNot following " + args[0]);
+                            continue;
                         }
-                        this.serverManager.removeServerContainer(args[0]);
+                        subscription.close();
                     }
-                    case "list-containers", "list-cons" -> this.serverManager.getContainers()
-                            .forEach(container -> this.print("&e" + container.getNames()[0].replace("/", "") + " - "
-                                    + this.serverManager.getServerStateById(container.getId())));
                     case "exit", "stop", "shutdown" -> {
                         this.isRunning = false;
                         this.print("Stopping server...");
                     }
                     case "help" -> {
                         this.print("&7-------------------------------&eHelp&7-------------------------------");
-                        this.print("&b create-container <platform> <version> <memory> &7- &fCreate a container with the platform and version");
+                        this.print("&b create-container <platform> <version> <memory> <env> [template] &7- &fCreate a container with the platform and version");
                         this.print("&b recreate-container <uniqueId> <platform> <version> <memory> &7- &fRecreate a container with the uniqueId");
                         this.print("&b restart-container <name> &7- &fRestart a container with the name");
                         this.print("&b start-container <name> &7- &fStart a container with the name");
                         this.print("&b stop-container <name> &7- &fStop a container with the name");
                         this.print("&b remove-container <name> &7- &fRemove a container with the name");
                         this.print("&b list-containers &7- &fList of the containers as name");
+                        this.print("&b logs <name> [lines] &7- &fShow the last log lines of a container");
+                        this.print("&b follow <name> &7- &fFollow the log of a container");
+                        this.print("&b unfollow <name> &7- &fStop following the log of a container");
+                        this.print("&b stats [name] &7- &fShow cpu, memory, network and disk usage of the containers");
+                        this.print("&b pool [<platform> <version> <memory> <size>] &7- &fShow or size the warm container pool");
+                        this.print("&b capacity [<memory> <cpus>] &7- &fShow or set the host capacity for new servers");
+                        this.print("&b nodes &7- &fShow the docker nodes with their servers and capacity");
+                        this.print("&b threads &7- &fShow the shared scheduler and thread counts");
+                        this.print("&b transport &7- &fShow docker connection pool usage per route");
+                        this.print("&b templates &7- &fShow the server templates and the cached server jars");
+                        this.print("&b template-save <name> <template> &7- &fSave a stopped server directory as template");
+                        this.print("&b reconcile <file> &7- &fConverge the containers to a server configuration file");
+                        this.print("&b recover &7- &fRecreate missing containers from their server directories");
+                        this.print("&b jobs &7- &fList the running and recently finished commands");
+                        this.print("&b wait <id> [seconds] &7- &fWait for a command to finish");
+                        this.print("&b cancel <id> &7- &fCancel a queued command");
                         this.print("&b clear &7- &fClear the console");
                         this.print("&b exit, shutdown, stop &7- &fShutdown the cloud");
                         this.print("&b help &7- &fShow this help menu");
@@ -130,29 +173,261 @@ public final class JLineConsole {
                     }
                     default -> this.print("Unknown command: " + command);
                 }
+            } catch (NumberFormatException e) {
+                this.print("[FF3333]Invalid number: " + e.getMessage());
+            } catch (IOException e) {
+                this.print("[FF3333]" + e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
             } catch (EndOfFileException e) {
                 throw new RuntimeException(e);
             }
         }
+        this.commandExecutor.shutdown();
         this.print("Stopped server.");
         System.exit(0);
 
     }
 
+    private Object execute(String command, String[] args) throws IOException {
+        switch (command) {
+            case "create-container", "create-con" -> {
+                if (args.length < 4) {
+                    this.print("[FF3333]Need platform and version argument");
+                    return null;
+                }
+                return this.serverManager.createServerContainerAsync(args[0].toLowerCase(), args[1].toLowerCase(),
+                                Integer.parseInt(args[2]), args[3].split(";"), args.length > 4 ? args[4] : null,
+                                this::printProgress)
+                        .whenComplete(this::printProvisioned);
+            }
+            case "start-container", "start-con" -> {
+                if (args.length < 1) {
+                    this.print("[FF3333]Need container name");
+                    return null;
+                }
+                this.printResult(this.serverManager.startServerContainer(args[0]));
+            }
+            case "recreate-container", "recreate-con" -> {
+                if (args.length < 5) {
+                    this.print("[FF3333]Need uniqueId, platform and version argument");
+                    return null;
+                }
+                return this.serverManager.recreateServerContainerAsync(args[1].toLowerCase(), args[2].toLowerCase(),
+                                args[0], Integer.parseInt(args[3]), args[4].split(";"), this::printProgress)
+                        .whenComplete(this::printProvisioned);
+            }
+            case "restart-container", "restart-con" -> {
+                if (args.length < 1) {
+                    this.print("[FF3333]Need container name");
+                    return null;
+                }
+                this.printResult(this.serverManager.restartServerContainer(args[0]));
+            }
+            case "stop-container", "stop-con" -> {
+                if (args.length < 1) {
+                    this.print("[FF3333]Need container name");
+                    return null;
+                }
+                this.printResult(this.serverManager.stopServerContainer(args[0]));
+            }
+            case "remove-container", "remove-con" -> {
+                if (args.length < 1) {
+                    this.print("[FF3333]Need container name");
+                    return null;
+                }
+                if (this.serverManager.getServerStateByName(args[0]).isRunning()) {
+                    this.printResult(this.serverManager.stopServerContainer(args[0]));
+                }
+                this.printResult(this.serverManager.removeServerContainer(args[0]));
+            }
+            case "logs" -> {
+                if (args.length < 1) {
+                    this.print("[FF3333]Need container name");
+                    return null;
+                }
+                int lines = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+                this.serverManager.tailLogs(args[0], lines).forEach(line -> this.reader.printAbove(this.logLine(args[0], line)));
+            }
+            case "follow" -> {
+                if (args.length < 1) {
+                    this.print("[FF3333]Need container name");
+                    return null;
+                }
+                if (this.followedLogs.containsKey(args[0])) {
+                    this.print("&eAlready following " + args[0]);
+                    return null;
+                }
+                Closeable subscription = this.serverManager.followLogs(args[0],
+                        line -> this.reader.printAbove(this.logLine(args[0], line)));
+                if (this.followedLogs.putIfAbsent(args[0], subscription) != null) {
+                    subscription.close();
+                    this.print("&eAlready following " + args[0]);
+                    return null;
+                }
+                this.print("&aFollowing " + args[0] + "&7, use &bunfollow " + args[0] + " &7to stop");
+            }
+            case "stats" -> {
+                if (args.length >= 1) {
+                    StatsSnapshot stats = this.serverManager.getContainerStats(args[0]);
+                    if (stats == null) {
+                        this.print("&eNo stats collected for " + args[0] + " yet");
+                        return null;
+                    }
+                    this.printStats(stats);
+                    return null;
+                }
+                this.serverManager.getAllContainerStats().values().stream()
+                        .sorted(Comparator.comparing(StatsSnapshot::containerName))
+                        .forEach(this::printStats);
+            }
+            case "pool" -> {
+                if (args.length >= 4) {
+                    this.serverManager.setPoolSize(args[0].toLowerCase(), args[1].toLowerCase(),
+                            Integer.parseInt(args[2]), Integer.parseInt(args[3]));
+                }
+                for (PoolMetrics metrics : this.serverManager.getPoolMetrics()) {
+                    this.print("&e" + metrics.profile() + " &7- &fready &a" + metrics.readySize() + "&7/&f"
+                            + metrics.targetSize() + " &7refilling &f" + metrics.refilling() + " &7hit rate &f"
+                            + String.format("%.1f%%", metrics.hitRate() * 100) + " &7avg refill &f"
+                            + metrics.averageRefillLatency().toMillis() + "ms &7max &f"
+                            + metrics.maxRefillLatency().toMillis() + "ms");
+                }
+            }
+            case "capacity" -> {
+                if (args.length >= 2) {
+                    this.serverManager.setHostCapacity(Long.parseLong(args[0]), Double.parseDouble(args[1]));
+                }
+                AdmissionMetrics metrics = this.serverManager.getAdmissionMetrics();
+                this.print("&ememory &a" + metrics.memoryCommitted() + "&7/&f" + metrics.memoryLimit() + "MB &7("
+                        + String.format("%.1f%%", metrics.memoryUtilization() * 100) + ") &ecpus &a"
+                        + String.format("%.1f", metrics.cpuCommitted()) + "&7/&f"
+                        + String.format("%.1f", metrics.cpuLimit()) + " &7("
+                        + String.format("%.1f%%", metrics.cpuUtilization() * 100) + ")");
+                this.print("&equeued &f" + metrics.queued() + " &7admitted &f" + metrics.admitted() + " &7delayed &f"
+                        + metrics.delayed() + " &7rejected &f" + metrics.rejected() + " &7avg wait &f"
+                        + metrics.averageWait().toMillis() + "ms");
+            }
+            case "templates" -> {
+                TemplateMetrics metrics = this.serverManager.getTemplates().getMetrics();
+                this.print("&etemplates &f" + String.join("&7, &f", this.serverManager.getTemplates().getTemplates())
+                        + " &7cached versions &f" + metrics.cachedVersions() + " &7harvested &f"
+                        + metrics.harvested());
+                this.print("&eclones &f" + metrics.clones() + " &7reflink &f" + metrics.reflinkClones()
+                        + " &7reflinked files &f" + metrics.reflinkedFiles() + " &7copied files &f" + metrics.copiedFiles()
+                        + " &7(" + metrics.copiedBytes() / (1024 * 1024) + "MB) &7avg &f"
+                        + metrics.averageCloneTime().toMillis() + "ms");
+            }
+            case "template-save" -> {
+                if (args.length < 2) {
+                    this.print("[FF3333]Need container name and template name");
+                    return null;
+                }
+                this.serverManager.saveTemplate(args[0], args[1]);
+                this.print("&7Saved &e" + args[0] + " &7as template &e" + args[1]);
+            }
+            case "nodes" -> {
+                for (ServerNode node : this.serverManager.getNodes()) {
+                    AdmissionMetrics metrics = node.getAdmission().getMetrics();
+                    this.print("&e" + node.getName() + " &7(" + (node.getConfiguration().dockerHost() == null
+                            ? "default" : node.getConfiguration().dockerHost()) + ") &7- &fservers &a"
+                            + node.getRegistry().getRunningCount() + "&7/&f" + node.getServerCount()
+                            + " &7memory &f" + metrics.memoryCommitted() + "&7/&f" + metrics.memoryLimit()
+                            + "MB &7cpus &f" + String.format("%.1f", metrics.cpuCommitted()) + "&7/&f"
+                            + String.format("%.1f", metrics.cpuLimit()) + " &7queued &f" + metrics.queued()
+                            + " &7ports &f" + node.getPortAllocator().getLeasedCount());
+                }
+            }
+            case "threads" -> {
+                SchedulerMetrics metrics = this.serverManager.getSchedulerMetrics();
+                this.print("&escheduler &7- &fthreads &a" + metrics.activeThreads() + "&7/&f" + metrics.poolSize()
+                        + " &7largest &f" + metrics.largestPoolSize() + " &7queued &f" + metrics.queuedTasks()
+                        + " &7periodic &f" + metrics.periodicTasks() + " &7completed &f" + metrics.completedTasks()
+                        + " &7failed &f" + metrics.failedTasks() + " &7service &f" + metrics.serviceThreads());
+                this.print("&ejvm &7- &fthreads &a" + metrics.liveThreads() + " &7peak &f" + metrics.peakThreads()
+                        + " &7daemon &f" + metrics.daemonThreads() + " &7log streams &f"
+                        + this.serverManager.getLogStreams() + " &7busy containers &f"
+                        + this.serverManager.getBusyContainers());
+            }
+            case "transport" -> {
+                for (TransportMetrics metrics : this.serverManager.getTransportMetrics()) {
+                    this.print("&e" + metrics.route() + " &7- &fin flight &a" + metrics.inFlight() + "&7/&f"
+                            + metrics.maxConnections() + " &7peak &f" + metrics.peakInFlight() + " &7usage &f"
+                            + String.format("%.1f%%", metrics.utilization() * 100) + " &7requests &f"
+                            + metrics.requests() + " &7failed &f" + metrics.failures() + " &7avg &f"
+                            + metrics.averageLatency().toMillis() + "ms &7timeout &f"
+                            + (metrics.responseTimeout() == null ? "none" : metrics.responseTimeout().toSeconds() + "s"));
+                }
+            }
+            case "list-containers", "list-cons" -> this.serverManager.getContainers()
+                    .forEach(container -> {
+                        String containerName = container.getNames()[0].replace("/", "");
+                        ServerState state = this.serverManager.getServerStateById(container.getId());
+                        HealthStatus health = this.serverManager.getHealthStatus(containerName);
+                        this.print("&e" + containerName + " - " + state + (health.everReachable() && state.isRunning()
+                                ? " &7(" + health.playersOnline() + "/" + health.playersMax() + " players, "
+                                + health.latency().toMillis() + "ms)" : ""));
+                    });
+            case "reconcile" -> {
+                if (args.length < 1) {
+                    this.print("[FF3333]Need configuration file");
+                    return null;
+                }
+                List<BulkOperationResult> results = this.serverManager.reconcile(
+                        ServerConfiguration.load(Path.of(args[0])));
+                if (results.isEmpty()) {
+                    this.print("&aAll containers already match " + args[0]);
+                }
+                results.forEach(this::printResult);
+            }
+            case "recover" -> {
+                RecoveryReport report = this.serverManager.recover();
+                this.print("&aRecovered &f" + report.recovered() + "&7/&f" + report.scanned() + " &7servers, &f"
+                        + report.present() + " &7already present, &c" + report.failures().size() + " failed &7in &f"
+                        + report.duration().toMillis() + "ms");
+                report.failures().forEach(failure -> this.print("&c" + failure));
+            }
+            default -> this.print("Unknown command: " + command);
+        }
+        return null;
+    }
+
+    private CommandJob job(String[] args) {
+        if (args.length < 1) {
+            this.print("[FF3333]Need job id");
+            return null;
+        }
+        CommandJob job = this.commandExecutor.get(Integer.parseInt(args[0].replace("#", "")));
+        if (job == null) {
+            this.print("[FF3333]Job " + args[0] + " not found");
+        }
+        return job;
+    }
+
+    private void printJobFinished(CommandJob job) {
+        switch (job.getState()) {
+            case SUCCEEDED -> this.print("&7Job &e#" + job.getId() + " &adone &7in &f" + job.getDuration().toMillis()
+                    + "ms&8: &f" + job.getCommandLine());
+            case CANCELLED -> this.print("&7Job &e#" + job.getId() + " &ecancelled&8: &f" + job.getCommandLine());
+            default -> {
+                Throwable error = job.getError();
+                this.print("&7Job &e#" + job.getId() + " [FF3333]failed&8: &f" + job.getCommandLine() + " &7- &f"
+                        + (error.getMessage() != null ? error.getMessage() : error.getClass().getSimpleName()));
+            }
+        }
+    }
+
     public String prefix() {
-        String prefix = "[33afff-33ffff]dockermanager &7» &f";
-        return ConsoleColor.apply("\r" + prefix);
+        return PREFIX.render();
     }
 
     public String userPrefix() {
-        try {
-            String hostname = InetAddress.getLocalHost().getHostName();
-            String prefix = "[33afff-33ffff]%hostname &7» &f".replace("%hostname", hostname);
-            return ConsoleColor.apply("\r" + prefix);
-        } catch (UnknownHostException e) {
-            return ConsoleColor
-                    .apply("\r" + "[33afff-33ffff]&7@&e%hostname &7» &f".replace("%hostname", "unknown"));
-        }
+        return this.prompt.render();
+    }
+
+    private String logLine(String containerName, String line) {
+        return MESSAGE_PREFIX.render("&7" + containerName + " &8| ") + line;
     }
 
     public void sendWelcomeMessage() {
@@ -168,14 +443,52 @@ public final class JLineConsole {
     }
 
     public void print(String message, boolean newLine) {
-        String coloredMessage = ConsoleColor.apply(this.prefix() + message);
+        String coloredMessage = MESSAGE_PREFIX.render(message);
         if (newLine) {
-            System.out.println(coloredMessage);
+            this.reader.printAbove(coloredMessage);
             return;
         }
         System.out.print(coloredMessage);
     }
 
+    private void printProgress(ServerContainer container, ProvisioningStage stage, Duration elapsed, Throwable error) {
+        if (stage == ProvisioningStage.READY || stage == ProvisioningStage.FAILED) {
+            return;
+        }
+        this.reader.printAbove(MESSAGE_PREFIX.render("&7" + container.getContainerName() + " &f"
+                + stage.name().toLowerCase() + " &8(" + elapsed.toMillis() + "ms)"));
+    }
+
+    private void printProvisioned(ServerContainer container, Throwable error) {
+        if (error != null) {
+            Throwable cause = error.getCause() != null ? error.getCause() : error;
+            this.reader.printAbove(MESSAGE_PREFIX.render("[FF3333]Provisioning failed: " + cause.getMessage()));
+            return;
+        }
+        this.reader.printAbove(MESSAGE_PREFIX.render("&a" + container.getContainerName()
+                + " &fis ready on port &e" + container.getPort()));
+    }
+
+    private void printStats(StatsSnapshot stats) {
+        this.print("&e" + stats.containerName() + " &7- &fcpu &b" + String.format("%.1f%%", stats.cpuPercent())
+                + " &7(avg " + String.format("%.1f%%", stats.averageCpuPercent()) + ") &fmem &b"
+                + stats.memoryUsage() / (1024 * 1024) + "&7/&f" + stats.memoryLimit() / (1024 * 1024) + "MB &fnet &b"
+                + String.format("%.1f", stats.networkRxRate() / 1024) + "&7/&b"
+                + String.format("%.1f", stats.networkTxRate() / 1024) + "KB/s &fdisk &b"
+                + String.format("%.1f", stats.blockReadRate() / 1024) + "&7/&b"
+                + String.format("%.1f", stats.blockWriteRate() / 1024) + "KB/s");
+    }
+
+    private void printResult(BulkOperationResult result) {
+        if (result.getOutcomes().size() > 1) {
+            this.print("&e" + result.getOperation() + "&7: &a" + result.getSuccesses().size() + " succeeded&7, &c"
+                    + result.getFailures().size() + " failed &7in &f" + result.getDuration().toMillis() + "ms");
+        }
+        for (BulkOperationResult.Outcome failure : result.getFailures()) {
+            this.print("&c" + failure.containerName() + "&7: &f" + failure.error());
+        }
+    }
+
     public void clear() {
         this.terminal.puts(InfoCmp.Capability.clear_screen);
         this.terminal.flush();
@@ -183,5 +496,6 @@ public final class JLineConsole {
 
     public void setServerManager(ServerManager serverManager) {
         this.serverManager = serverManager;
+        this.prompt.setSummary(serverManager::getNodes);
     }
 }
@@ -0,0 +1,46 @@
+package com.nexoscript.dsm.console.batch;
+
+import java.util.Arrays;
+
+public record BatchCommand(int lineNumber, String line, String command, String[] args) {
+    public static final String ALL = "*";
+
+    public static BatchCommand parse(int lineNumber, String line) {
+        String[] parts = line.trim().split("\\s+");
+        String[] args = Arrays.copyOfRange(parts, 1, parts.length);
+        String command = switch (parts[0]) {
+            case "create-container", "create-con" -> "create-con";
+            case "recreate-container", "recreate-con" -> "recreate-con";
+            case "start-container", "start-con" -> "start-con";
+            case "restart-container", "restart-con" -> "restart-con";
+            case "stop-container", "stop-con" -> "stop-con";
+            case "remove-container", "remove-con" -> "remove-con";
+            default -> throw new IllegalArgumentException("Unknown command: " + parts[0]);
+        };
+        int required = switch (command) {
+            case "create-con" -> 4;
+            case "recreate-con" -> 5;
+            default -> 1;
+        };
+        if (args.length < required) {
+            throw new IllegalArgumentException(switch (command) {
+                case "create-con" -> "Need platform, version, memory and environment argument";
+                case "recreate-con" -> "Need uniqueId, platform, version, memory and environment argument";
+                default -> "Need container name";
+            });
+        }
+        return new BatchCommand(lineNumber, line.trim(), command, args);
+    }
+
+    public String target(String prefix) {
+        return switch (this.command) {
+            case "create-con" -> null;
+            case "recreate-con" -> prefix + "-" + this.args[0];
+            default -> this.args[0].replace("/", "");
+        };
+    }
+
+    public boolean isBarrier() {
+        return ALL.equals(this.target(""));
+    }
+}
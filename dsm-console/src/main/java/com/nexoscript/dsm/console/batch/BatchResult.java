@@ -0,0 +1,15 @@
+package com.nexoscript.dsm.console.batch;
+
+import java.time.Duration;
+
+public record BatchResult(BatchCommand command, Status status, Duration duration, String detail) {
+    public enum Status {
+        SUCCEEDED,
+        FAILED,
+        SKIPPED
+    }
+
+    public boolean isSuccessful() {
+        return this.status == Status.SUCCEEDED;
+    }
+}
@@ -0,0 +1,148 @@
+package com.nexoscript.dsm.console.batch;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import com.nexoscript.dsm.common.server.bulk.BulkOperationResult;
+import com.nexoscript.dsm.common.server.container.ServerContainer;
+import com.nexoscript.dsm.common.server.manager.ServerManager;
+
+public final class BatchRunner {
+    private final ServerManager serverManager;
+    private final int concurrency;
+    private final PrintStream out;
+
+    public BatchRunner(ServerManager serverManager, int concurrency, PrintStream out) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Concurrency must be at least 1");
+        }
+        this.serverManager = serverManager;
+        this.concurrency = concurrency;
+        this.out = out;
+    }
+
+    public List<BatchResult> run(List<BatchCommand> commands) {
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(this.concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "dsm-batch-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        long startedAt = System.nanoTime();
+        try {
+            List<CompletableFuture<BatchResult>> futures = this.schedule(commands, executor);
+            List<BatchResult> results = futures.stream().map(CompletableFuture::join).toList();
+            this.printSummary(results, Duration.ofNanos(System.nanoTime() - startedAt));
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private List<CompletableFuture<BatchResult>> schedule(List<BatchCommand> commands, ExecutorService executor) {
+        String prefix = this.serverManager.getPrefix();
+        List<CompletableFuture<BatchResult>> futures = new ArrayList<>(commands.size());
+        List<CompletableFuture<BatchResult>> sinceBarrier = new ArrayList<>();
+        Map<String, CompletableFuture<BatchResult>> lastByTarget = new HashMap<>();
+        CompletableFuture<?> barrier = CompletableFuture.completedFuture(null);
+        for (BatchCommand command : commands) {
+            CompletableFuture<BatchResult> future;
+            if (command.isBarrier()) {
+                future = CompletableFuture.allOf(sinceBarrier.toArray(CompletableFuture[]::new))
+                        .thenCombine(barrier, (ignored, previous) -> null)
+                        .thenApplyAsync(ignored -> this.execute(command), executor);
+                barrier = future;
+                sinceBarrier.clear();
+                lastByTarget.clear();
+            } else {
+                String target = command.target(prefix);
+                CompletableFuture<BatchResult> predecessor = target != null ? lastByTarget.get(target) : null;
+                if (predecessor != null) {
+                    future = predecessor.thenApplyAsync(previous -> previous.isSuccessful() ? this.execute(command)
+                            : new BatchResult(command, BatchResult.Status.SKIPPED, Duration.ZERO,
+                            "line " + previous.command().lineNumber() + " did not succeed"), executor);
+                } else {
+                    future = barrier.thenApplyAsync(ignored -> this.execute(command), executor);
+                }
+                if (target != null) {
+                    lastByTarget.put(target, future);
+                }
+                sinceBarrier.add(future);
+            }
+            futures.add(future.thenApply(result -> {
+                this.print(result);
+                return result;
+            }));
+        }
+        return futures;
+    }
+
+    private BatchResult execute(BatchCommand command) {
+        long startedAt = System.nanoTime();
+        String[] args = command.args();
+        try {
+            String detail = switch (command.command()) {
+                case "create-con" -> this.describe(this.serverManager.createServerContainer(args[0].toLowerCase(),
+                        args[1].toLowerCase(), Integer.parseInt(args[2]), args[3].split(";")));
+                case "recreate-con" -> this.describe(this.serverManager.recreateServerContainer(args[1].toLowerCase(),
+                        args[2].toLowerCase(), args[0], Integer.parseInt(args[3]), args[4].split(";")));
+                case "start-con" -> this.describe(this.serverManager.startServerContainer(args[0]));
+                case "restart-con" -> this.describe(this.serverManager.restartServerContainer(args[0]));
+                case "stop-con" -> this.describe(this.serverManager.stopServerContainer(args[0]));
+                case "remove-con" -> {
+                    if (!command.isBarrier() && this.serverManager.getServerStateByName(args[0]).isRunning()) {
+                        this.describe(this.serverManager.stopServerContainer(args[0]));
+                    }
+                    yield this.describe(this.serverManager.removeServerContainer(args[0]));
+                }
+                default -> throw new IllegalArgumentException("Unknown command: " + command.command());
+            };
+            return new BatchResult(command, BatchResult.Status.SUCCEEDED, this.since(startedAt), detail);
+        } catch (RuntimeException e) {
+            String message = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            return new BatchResult(command, BatchResult.Status.FAILED, this.since(startedAt), message);
+        }
+    }
+
+    private String describe(ServerContainer container) {
+        return container.getContainerName() + " on port " + container.getPort();
+    }
+
+    private String describe(BulkOperationResult result) {
+        if (!result.isSuccessful()) {
+            throw new IllegalStateException(result.getFailures().stream()
+                    .map(failure -> failure.containerName() + ": " + failure.error())
+                    .collect(Collectors.joining("; ")));
+        }
+        return result.getSuccesses().size() + " container(s)";
+    }
+
+    private Duration since(long startedAt) {
+        return Duration.ofNanos(System.nanoTime() - startedAt);
+    }
+
+    private synchronized void print(BatchResult result) {
+        this.out.printf("[line %d] %-9s %6dms  %s  -> %s%n", result.command().lineNumber(), result.status(),
+                result.duration().toMillis(), result.command().line(), result.detail());
+    }
+
+    private void printSummary(List<BatchResult> results, Duration wallTime) {
+        long succeeded = results.stream().filter(BatchResult::isSuccessful).count();
+        long failed = results.stream().filter(result -> result.status() == BatchResult.Status.FAILED).count();
+        long skipped = results.stream().filter(result -> result.status() == BatchResult.Status.SKIPPED).count();
+        long commandTime = results.stream().mapToLong(result -> result.duration().toMillis()).sum();
+        this.out.printf("Batch finished: %d commands, %d succeeded, %d failed, %d skipped in %dms "
+                        + "(%dms of command time, concurrency %d, %.1fx)%n", results.size(), succeeded, failed, skipped,
+                wallTime.toMillis(), commandTime, this.concurrency,
+                wallTime.toMillis() == 0 ? 1.0 : (double) commandTime / wallTime.toMillis());
+    }
+}
@@ -0,0 +1,32 @@
+package com.nexoscript.dsm.console.batch;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+public record BatchScript(List<BatchCommand> commands, List<String> errors) {
+    public static BatchScript read(BufferedReader reader) throws IOException {
+        List<BatchCommand> commands = new ArrayList<>();
+        List<String> errors = new ArrayList<>();
+        int lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+            try {
+                commands.add(BatchCommand.parse(lineNumber, trimmed));
+            } catch (IllegalArgumentException e) {
+                errors.add("Line " + lineNumber + ": " + e.getMessage() + " (" + trimmed + ")");
+            }
+        }
+        return new BatchScript(List.copyOf(commands), List.copyOf(errors));
+    }
+
+    public boolean isValid() {
+        return this.errors.isEmpty();
+    }
+}
@@ -0,0 +1,81 @@
+package com.nexoscript.dsm.console.command;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+public final class CommandExecutor {
+    private static final int MAX_FINISHED_JOBS = 100;
+
+    private final ExecutorService executor;
+    private final AtomicInteger nextId;
+    private final Map<Integer, CommandJob> jobs;
+    private final Consumer<CommandJob> completionListener;
+
+    public CommandExecutor(int threads, Consumer<CommandJob> completionListener) {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "dsm-command-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.nextId = new AtomicInteger();
+        this.jobs = new ConcurrentSkipListMap<>();
+        this.completionListener = completionListener;
+    }
+
+    public CommandJob submit(String commandLine, CommandTask task) {
+        CommandJob job = new CommandJob(this.nextId.incrementAndGet(), commandLine);
+        this.jobs.put(job.getId(), job);
+        job.getCompletion().whenComplete((result, error) -> {
+            try {
+                this.completionListener.accept(job);
+            } catch (RuntimeException e) {
+                System.err.println("Error while reporting job #" + job.getId() + ": " + e.getMessage());
+            }
+            this.prune();
+        });
+        job.setExecution(this.executor.submit(() -> job.run(task)));
+        return job;
+    }
+
+    public CommandJob get(int id) {
+        return this.jobs.get(id);
+    }
+
+    public Collection<CommandJob> getJobs() {
+        return new ArrayList<>(this.jobs.values());
+    }
+
+    public boolean cancel(int id) {
+        CommandJob job = this.jobs.get(id);
+        return job != null && job.cancel();
+    }
+
+    public void shutdown() {
+        this.jobs.values().forEach(CommandJob::cancel);
+        this.executor.shutdownNow();
+    }
+
+    private void prune() {
+        int finished = 0;
+        for (CommandJob job : this.jobs.values()) {
+            if (job.getState().isFinished()) {
+                finished++;
+            }
+        }
+        Iterator<CommandJob> iterator = this.jobs.values().iterator();
+        while (finished > MAX_FINISHED_JOBS && iterator.hasNext()) {
+            if (iterator.next().getState().isFinished()) {
+                iterator.remove();
+                finished--;
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.nexoscript.dsm.console.command;
+
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+public final class CommandJob {
+    private final int id;
+    private final String commandLine;
+    private final CompletableFuture<Void> completion;
+    private volatile Future<?> execution;
+    private volatile long startedAt;
+    private volatile long finishedAt;
+
+    CommandJob(int id, String commandLine) {
+        this.id = id;
+        this.commandLine = commandLine;
+        this.completion = new CompletableFuture<>();
+    }
+
+    void run(CommandTask task) {
+        synchronized (this) {
+            if (this.completion.isDone()) {
+                return;
+            }
+            this.startedAt = System.nanoTime();
+        }
+        try {
+            Object result = task.run();
+            if (result instanceof CompletionStage<?> resultStage) {
+                resultStage.whenComplete((value, error) -> this.finish(error));
+                return;
+            }
+            this.finish(null);
+        } catch (Exception e) {
+            this.finish(e);
+        }
+    }
+
+    void setExecution(Future<?> execution) {
+        this.execution = execution;
+    }
+
+    private void finish(Throwable error) {
+        if (this.completion.isDone()) {
+            return;
+        }
+        this.finishedAt = System.nanoTime();
+        if (error == null) {
+            this.completion.complete(null);
+            return;
+        }
+        this.completion.completeExceptionally(error instanceof CompletionException && error.getCause() != null
+                ? error.getCause() : error);
+    }
+
+    public synchronized boolean cancel() {
+        if (this.startedAt != 0 || !this.completion.cancel(false)) {
+            return false;
+        }
+        Future<?> execution = this.execution;
+        if (execution != null) {
+            execution.cancel(false);
+        }
+        return true;
+    }
+
+    public boolean await(Duration timeout) throws InterruptedException {
+        try {
+            this.completion.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            return false;
+        } catch (ExecutionException | CancellationException e) {
+            return true;
+        }
+        return true;
+    }
+
+    public int getId() {
+        return this.id;
+    }
+
+    public String getCommandLine() {
+        return this.commandLine;
+    }
+
+    public CompletableFuture<Void> getCompletion() {
+        return this.completion;
+    }
+
+    public JobState getState() {
+        if (this.completion.isCancelled()) {
+            return JobState.CANCELLED;
+        }
+        if (this.completion.isCompletedExceptionally()) {
+            return JobState.FAILED;
+        }
+        if (this.completion.isDone()) {
+            return JobState.SUCCEEDED;
+        }
+        return this.startedAt == 0 ? JobState.QUEUED : JobState.RUNNING;
+    }
+
+    public Throwable getError() {
+        if (!this.completion.isCompletedExceptionally() || this.completion.isCancelled()) {
+            return null;
+        }
+        try {
+            this.completion.join();
+            return null;
+        } catch (CompletionException e) {
+            return e.getCause();
+        }
+    }
+
+    public Duration getDuration() {
+        long startedAt = this.startedAt;
+        if (startedAt == 0) {
+            return Duration.ZERO;
+        }
+        long finishedAt = this.finishedAt;
+        return Duration.ofNanos((finishedAt == 0 ? System.nanoTime() : finishedAt) - startedAt);
+    }
+}
@@ -0,0 +1,6 @@
+package com.nexoscript.dsm.console.command;
+
+@FunctionalInterface
+public interface CommandTask {
+    Object run() throws Exception;
+}
@@ -1,38 +1,151 @@
 package com.nexoscript.dsm.runner;
 
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
 
+import com.nexoscript.dsm.api.ApiServer;
+import com.nexoscript.dsm.common.server.admission.AdmissionMetrics;
 import com.nexoscript.dsm.common.server.manager.ServerManager;
+import com.nexoscript.dsm.common.server.node.NodeConfiguration;
+import com.nexoscript.dsm.common.server.node.Placement;
 import com.nexoscript.dsm.console.JLineConsole;
+import com.nexoscript.dsm.console.batch.BatchResult;
+import com.nexoscript.dsm.console.batch.BatchRunner;
+import com.nexoscript.dsm.console.batch.BatchScript;
 
 public class DSMRunner {
     private static DSMRunner instance;
     private final ServerManager serverManager;
     private final JLineConsole console;
+    private ApiServer apiServer;
     private Thread runnerThread;
 
     public static void main(String[] args) throws IOException {
+        String batchFile = null;
+        String configurationFile = null;
+        boolean recover = false;
+        int concurrency = 8;
+        long memory = -1;
+        double cpus = -1;
+        double cpuCap = 0;
+        String nodesFile = null;
+        Placement placement = Placement.LEAST_LOADED;
+        int apiPort = -1;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--batch" -> batchFile = i + 1 < args.length ? args[++i] : "-";
+                case "--concurrency" -> concurrency = Integer.parseInt(args[++i]);
+                case "--config" -> configurationFile = args[++i];
+                case "--recover" -> recover = true;
+                case "--memory" -> memory = Long.parseLong(args[++i]);
+                case "--cpus" -> cpus = Double.parseDouble(args[++i]);
+                case "--cpu-cap" -> cpuCap = Double.parseDouble(args[++i]);
+                case "--nodes" -> nodesFile = args[++i];
+                case "--placement" -> placement = Placement.valueOf(args[++i].toUpperCase(Locale.ROOT).replace('-', '_'));
+                case "--api" -> apiPort = Integer.parseInt(args[++i]);
+                default -> {
+                    System.err.println("Unknown argument: " + args[i]);
+                    System.exit(2);
+                }
+            }
+        }
+        if (batchFile != null) {
+            instance = new DSMRunner(false);
+            instance.configure(recover, memory, cpus, cpuCap, nodesFile, placement);
+            System.exit(instance.runBatch(batchFile, concurrency));
+        }
         instance = new DSMRunner();
+        instance.configure(recover, memory, cpus, cpuCap, nodesFile, placement);
+        if (apiPort > 0) {
+            instance.startApi(new InetSocketAddress("127.0.0.1", apiPort));
+        }
+        if (configurationFile != null) {
+            instance.getServerManager().setConfigurationFile(Paths.get(configurationFile), Duration.ofSeconds(30));
+        }
         instance.start();
     }
 
     public DSMRunner() throws IOException {
-        this.console = new JLineConsole();
+        this(true);
+    }
+
+    public DSMRunner(boolean interactive) throws IOException {
+        this.console = interactive ? new JLineConsole() : null;
         this.serverManager = new ServerManager("2weeksmc-server", 10000, "D:/2weeksmc/dsm-containers");
     }
 
+    private void configure(boolean recover, long memory, double cpus, double cpuCap, String nodesFile,
+                           Placement placement) throws IOException {
+        this.serverManager.setRecoverOnStartup(recover);
+        this.serverManager.setServerCpuCap(cpuCap);
+        this.serverManager.setPlacementStrategy(placement);
+        if (nodesFile != null) {
+            NodeConfiguration.load(Paths.get(nodesFile)).forEach(this.serverManager::addNode);
+        }
+        if (memory > 0 || cpus > 0) {
+            AdmissionMetrics capacity = this.serverManager.getAdmissionMetrics();
+            this.serverManager.setHostCapacity(memory > 0 ? memory : capacity.memoryLimit(),
+                    cpus > 0 ? cpus : capacity.cpuLimit());
+        }
+        if (cpus > 0) {
+            this.serverManager.setServerCpus(cpuCap > 0 ? cpuCap : 1.0);
+        }
+    }
+
+    public void startApi(InetSocketAddress address) throws IOException {
+        this.apiServer = new ApiServer(this.serverManager, address);
+        this.apiServer.start();
+        System.out.println("Control API listening on http://" + address.getHostString() + ":" + address.getPort());
+    }
+
     public void start() {
         this.runnerThread = this.serverManager;
         this.runnerThread.start();
         this.console.setServerManager(this.serverManager);
         this.console.start();
+        if (this.apiServer != null) {
+            this.apiServer.stop();
+        }
         this.serverManager.close();
     }
 
+    public int runBatch(String batchFile, int concurrency) throws IOException {
+        BatchScript script;
+        try (BufferedReader reader = batchFile.equals("-")
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+                : Files.newBufferedReader(Paths.get(batchFile), StandardCharsets.UTF_8)) {
+            script = BatchScript.read(reader);
+        }
+        if (!script.isValid()) {
+            script.errors().forEach(System.err::println);
+            return 2;
+        }
+        this.serverManager.run();
+        try {
+            List<BatchResult> results = new BatchRunner(this.serverManager, concurrency, System.out)
+                    .run(script.commands());
+            return results.stream().allMatch(result -> result.status() != BatchResult.Status.FAILED) ? 0 : 1;
+        } finally {
+            this.serverManager.close();
+        }
+    }
+
     public Thread getRunnerThread() {
         return runnerThread;
     }
 
+    public ApiServer getApiServer() {
+        return apiServer;
+    }
+
     public JLineConsole getConsole() {
         return console;
     }